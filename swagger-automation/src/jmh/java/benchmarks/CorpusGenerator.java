@@ -0,0 +1,323 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Description: This class writes a synthetic tree of JAX-RS resources, DTO files, and plain classes, laid out the way
+ * the tool expects (pls-* module directories under a root, each with src/main/java). Everything is generated from a
+ * seed, so the same options always produce the same tree.
+ * <p>
+ * Options:
+ * --out=DIR           directory to write the tree to (required)
+ * --modules=N         number of pls-* modules (default 4)
+ * --resources=N       number of REST resources across all modules (default 100)
+ * --methods=N         methods per resource (default 8)
+ * --javadoc=P         fraction of methods with a JavaDoc comment (default 0.8)
+ * --status-codes=P    fraction of methods with @StatusCodes (default 0.5)
+ * --dtos=N            number of DTO files (default twice the number of resources)
+ * --dto-fanout=N      DTO objects used by each resource method and by each DTO file (default 2)
+ * --dto-depth=N       levels of DTO files reachable from a resource (default 3)
+ * --cycles=P          fraction of DTO files that also use a DTO file of their own or an earlier level (default 0.1)
+ * --plain=N           plain classes per module that are neither resources nor DTO files (default 25)
+ * --seed=N            random seed (default 42)
+ */
+
+public class CorpusGenerator {
+
+    private Path out; // directory the tree is written to
+    private int modules = 4; // number of pls-* modules
+    private int resources = 100; // number of REST resources
+    private int methods = 8; // methods per resource
+    private double javadoc = 0.8; // fraction of methods with a JavaDoc comment
+    private double statusCodes = 0.5; // fraction of methods with @StatusCodes
+    private int dtos = -1; // number of DTO files, -1 for twice the number of resources
+    private int dtoFanout = 2; // DTO objects used by each resource method and each DTO file
+    private int dtoDepth = 3; // levels of DTO files
+    private double cycles = 0.1; // fraction of DTO files with a back edge
+    private int plain = 25; // plain classes per module
+    private long seed = 42; // random seed
+
+    private Random random; // source of every random choice
+    private List<List<String[]>> levels; // DTO files of each level, as {module, simple name}
+    private int filesWritten; // number of java files written
+
+    /**
+     * Description: Creates a generator from command line options
+     *
+     * @param args the options
+     * @return the generator
+     * @throws IllegalArgumentException if an option is not recognized
+     */
+    public static CorpusGenerator fromArgs(String[] args) {
+        CorpusGenerator generator = new CorpusGenerator();
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--out=")) {
+                generator.out = Paths.get(value);
+            } else if (arg.startsWith("--modules=")) {
+                generator.modules = Math.max(1, Integer.parseInt(value));
+            } else if (arg.startsWith("--resources=")) {
+                generator.resources = Math.max(0, Integer.parseInt(value));
+            } else if (arg.startsWith("--methods=")) {
+                generator.methods = Math.max(1, Integer.parseInt(value));
+            } else if (arg.startsWith("--javadoc=")) {
+                generator.javadoc = Double.parseDouble(value);
+            } else if (arg.startsWith("--status-codes=")) {
+                generator.statusCodes = Double.parseDouble(value);
+            } else if (arg.startsWith("--dtos=")) {
+                generator.dtos = Math.max(0, Integer.parseInt(value));
+            } else if (arg.startsWith("--dto-fanout=")) {
+                generator.dtoFanout = Math.max(0, Integer.parseInt(value));
+            } else if (arg.startsWith("--dto-depth=")) {
+                generator.dtoDepth = Math.max(1, Integer.parseInt(value));
+            } else if (arg.startsWith("--cycles=")) {
+                generator.cycles = Double.parseDouble(value);
+            } else if (arg.startsWith("--plain=")) {
+                generator.plain = Math.max(0, Integer.parseInt(value));
+            } else if (arg.startsWith("--seed=")) {
+                generator.seed = Long.parseLong(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * Description: Standard setter for the directory the tree is written to
+     *
+     * @param out the directory to write to
+     */
+    public void setOut(Path out) {
+        this.out = out;
+    }
+
+    /**
+     * Description: Writes the tree
+     *
+     * @return the number of java files written
+     * @throws IOException if a file cannot be written
+     */
+    public int generate() throws IOException {
+        if (this.out == null) {
+            throw new IllegalArgumentException("--out=DIR is required");
+        }
+        this.random = new Random(this.seed);
+        this.filesWritten = 0;
+
+        int dtoCount = this.dtos < 0 ? this.resources * 2 : this.dtos;
+        this.levels = new ArrayList<>();
+        for (int level = 0; level < this.dtoDepth; level++) {
+            this.levels.add(new ArrayList<>());
+        }
+        for (int i = 0; i < dtoCount; i++) {//spreading the DTO files over the levels and modules
+            this.levels.get(i % this.dtoDepth).add(new String[]{module(i), "Item" + letters(i) + "DTO"});
+        }
+        for (int level = 0; level < this.dtoDepth; level++) {
+            for (String[] dto : this.levels.get(level)) {
+                writeDTO(dto, level);
+            }
+        }
+        for (int i = 0; i < this.resources; i++) {
+            writeResource(module(i), letters(i) + "Resource");
+        }
+        for (int m = 0; m < this.modules; m++) {
+            for (int i = 0; i < this.plain; i++) {
+                writePlain(module(m), "Helper" + letters(i));
+            }
+        }
+        return this.filesWritten;
+    }
+
+    private String module(int index) {
+        return "m" + letters(index % this.modules).toLowerCase();
+    }
+
+    /**
+     * Description: Spells out a number in letters, since the tool only recognizes DTO names made of letters
+     *
+     * @param number the number to spell
+     * @return the number in base 26, ex. 0 is Ba, 1 is Bb, and 26 is Bba
+     */
+    static String letters(int number) {
+        StringBuilder letters = new StringBuilder();
+        int remaining = number;
+        do {
+            letters.insert(0, (char) ('a' + remaining % 26));
+            remaining /= 26;
+        } while (remaining > 0);
+        return "B" + letters;
+    }
+
+    private String packageOf(String module, String kind) {
+        return "com.example." + module + "." + kind;
+    }
+
+    private String[] pickDTO(int level) {
+        List<String[]> candidates = this.levels.get(level);
+        return candidates.isEmpty() ? null : candidates.get(this.random.nextInt(candidates.size()));
+    }
+
+    private String qualifiedName(String[] dto) {
+        return packageOf(dto[0], "dto") + "." + dto[1];
+    }
+
+    /**
+     * Description: Writes a DTO file with a field and getter for every DTO object it uses, and a few plain fields
+     */
+    private void writeDTO(String[] dto, int level) throws IOException {
+        Set<String[]> uses = new LinkedHashSet<>();
+        if (level + 1 < this.dtoDepth) {
+            for (int i = 0; i < this.dtoFanout; i++) {
+                String[] used = pickDTO(level + 1);
+                if (used != null) {
+                    uses.add(used);
+                }
+            }
+        }
+        if (this.random.nextDouble() < this.cycles) {//a back edge to this level or an earlier one
+            String[] used = pickDTO(this.random.nextInt(level + 1));
+            if (used != null && used != dto) {
+                uses.add(used);
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageOf(dto[0], "dto")).append(";\n\n");
+        for (String[] used : uses) {
+            if (!used[0].equals(dto[0])) {
+                source.append("import ").append(qualifiedName(used)).append(";\n");
+            }
+        }
+        source.append("import java.io.Serializable;\n\n");
+        source.append("/**\n * Transfer object for ").append(dto[1]).append(".\n */\n");
+        source.append("public class ").append(dto[1]).append(" implements Serializable {\n\n");
+        source.append("    private Long id;\n    private String name;\n");
+        int field = 0;
+        for (String[] used : uses) {
+            source.append("    private ").append(used[1]).append(" related").append(letters(field++)).append(";\n");
+        }
+        source.append("\n");
+        appendGetter(source, "Long", "Id", "The identifier of the item.");
+        appendGetter(source, "String", "Name", null);
+        field = 0;
+        for (String[] used : uses) {
+            appendGetter(source, used[1], "Related" + letters(field++), "A related item.");
+        }
+        source.append("}\n");
+        write(dto[0], "dto", dto[1], source);
+    }
+
+    private void appendGetter(StringBuilder source, String type, String property, String description) {
+        if (description != null && this.random.nextDouble() < this.javadoc) {
+            source.append("    /**\n     * ").append(description).append("\n     */\n");
+        }
+        String field = Character.toLowerCase(property.charAt(0)) + property.substring(1);
+        source.append("    public ").append(type).append(" get").append(property).append("() {\n")
+                .append("        return ").append(field).append(";\n    }\n\n");
+        source.append("    public void set").append(property).append("(").append(type).append(" ").append(field)
+                .append(") {\n        this.").append(field).append(" = ").append(field).append(";\n    }\n\n");
+    }
+
+    /**
+     * Description: Writes a JAX-RS resource whose methods take and return level 0 DTO objects
+     */
+    private void writeResource(String module, String name) throws IOException {
+        List<String[]> used = new ArrayList<>();
+        for (int i = 0; i < this.methods * Math.max(1, this.dtoFanout); i++) {
+            String[] dto = pickDTO(0);
+            if (dto != null) {
+                used.add(dto);
+            }
+        }
+        Set<String> imports = new LinkedHashSet<>();
+        for (String[] dto : used) {
+            imports.add(qualifiedName(dto));
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageOf(module, "rest")).append(";\n\n");
+        for (String qualifiedName : imports) {
+            source.append("import ").append(qualifiedName).append(";\n");
+        }
+        source.append("import com.webcohesion.enunciate.metadata.rs.ResponseCode;\n")
+                .append("import com.webcohesion.enunciate.metadata.rs.StatusCodes;\n\n")
+                .append("import javax.ws.rs.*;\n")
+                .append("import javax.ws.rs.core.MediaType;\n\n");
+        source.append("@Path(\"/").append(name.toLowerCase()).append("\")\n");
+        source.append("public class ").append(name).append(" {\n\n");
+
+        String[] verbs = {"GET", "POST", "PUT", "DELETE"};
+        for (int m = 0; m < this.methods; m++) {
+            String[] returned = used.isEmpty() ? null : used.get((m * Math.max(1, this.dtoFanout)) % used.size());
+            String[] body = used.isEmpty() ? null : used.get((m * Math.max(1, this.dtoFanout) + 1) % used.size());
+            String verb = verbs[m % verbs.length];
+            boolean hasBody = body != null && (verb.equals("POST") || verb.equals("PUT"));
+
+            if (this.random.nextDouble() < this.javadoc) {
+                source.append("    /**\n     * Handles ").append(verb).append(" requests for item ").append(m)
+                        .append(" of ").append(name).append(".\n     *\n")
+                        .append("     * @param id the identifier of the item\n");
+                if (hasBody) {
+                    source.append("     * @param request the item to store\n");
+                }
+                source.append("     */\n");
+            }
+            source.append("    @").append(verb).append("\n");
+            source.append("    @Path(\"/op").append(letters(m).toLowerCase()).append("/{id}\")\n");
+            source.append("    @Produces(MediaType.APPLICATION_JSON)\n");
+            if (this.random.nextDouble() < this.statusCodes) {
+                source.append("    @StatusCodes({@ResponseCode(code = 200, condition = \"Success\"), ")
+                        .append("@ResponseCode(code = 400, condition = \"The request is not valid\"), ")
+                        .append("@ResponseCode(code = 404, condition = \"Not found\")})\n");
+            }
+            source.append("    public ").append(returned == null ? "String" : returned[1]).append(" op")
+                    .append(letters(m)).append("(@PathParam(\"id\") Long id");
+            if (hasBody) {
+                source.append(", ").append(body[1]).append(" request");
+            }
+            source.append(") {\n        return null;\n    }\n\n");
+        }
+        source.append("}\n");
+        write(module, "rest", name, source);
+    }
+
+    private void writePlain(String module, String name) throws IOException {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageOf(module, "util")).append(";\n\n");
+        source.append("public final class ").append(name).append(" {\n\n");
+        source.append("    private ").append(name).append("() {\n    }\n\n");
+        source.append("    public static String format(Object value) {\n")
+                .append("        return value == null ? \"\" : value.toString().trim();\n    }\n}\n");
+        write(module, "util", name, source);
+    }
+
+    private void write(String module, String kind, String name, StringBuilder source) throws IOException {
+        Path directory = this.out.resolve("pls-" + module).resolve("src/main/java")
+                .resolve(packageOf(module, kind).replace('.', '/'));
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(name + ".java"), source.toString().getBytes(StandardCharsets.UTF_8));
+        this.filesWritten++;
+    }
+
+    /**
+     * Description: Writes a tree from the command line options
+     *
+     * @param args the options
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        CorpusGenerator generator = fromArgs(args);
+        int files = generator.generate();
+        System.out.println("Wrote " + files + " files to " + generator.out.toAbsolutePath());
+    }
+}
@@ -0,0 +1,127 @@
+package benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.comments.JavadocComment;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: Benchmarks of the FileBuilder: reading descriptions out of JavaDoc comments and @StatusCodes, and
+ * annotating and writing a single large REST resource.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileBuilderBenchmark {
+
+    static final ArrayList<String> ANNOTATIONS = new ArrayList<>(Arrays.asList(
+            "@Operation", "@Parameter", "@Schema", "@ApiResponse")); // the annotations added by the tool
+
+    /**
+     * Description: The JavaDoc comments and @ResponseCode pairs of every seed file
+     */
+    @State(Scope.Benchmark)
+    public static class Descriptions {
+
+        private Object builder; // builder whose helpers are measured
+        private List<String> comments; // content of every JavaDoc comment
+        private List<String[]> codeDescriptionPairs; // code and condition of every @ResponseCode, as printed
+
+        @Setup(Level.Trial)
+        public void setUp() throws Throwable {
+            this.builder = Tool.newBuilder(new HashSet<>(), ANNOTATIONS);
+            this.comments = new ArrayList<>();
+            this.codeDescriptionPairs = new ArrayList<>();
+            for (File file : Seeds.files()) {
+                CompilationUnit compUnit = StaticJavaParser.parse(file);
+                for (JavadocComment comment : compUnit.findAll(JavadocComment.class)) {
+                    this.comments.add(comment.getContent());
+                }
+                for (NormalAnnotationExpr code : compUnit.findAll(NormalAnnotationExpr.class)) {
+                    if (code.getNameAsString().equals("ResponseCode") && code.getPairs().size() >= 2) {
+                        this.codeDescriptionPairs.add(new String[]{code.getPairs().get(0).toString(),
+                                code.getPairs().get(1).toString()});
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Description: A large REST resource, restored and parsed again before every invocation so that each invocation
+     * annotates and writes the whole file
+     */
+    @State(Scope.Benchmark)
+    public static class LargeResource {
+
+        @Param({"1", "10"})
+        public int copies; // copies of each method of the seed resource
+
+        private Path directory; // holds the resource that is rewritten
+        private File file; // the resource that is rewritten
+        private String source; // the resource before it is annotated
+        private LexicalPreservingPrinter lex = new LexicalPreservingPrinter(); // printer used by the tool
+        private Object builder; // builder holding the freshly parsed resource
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            this.directory = Files.createTempDirectory("builder-benchmark");
+            this.file = this.directory.resolve(Seeds.LARGE_RESOURCE_SEED + ".java").toFile();
+            this.source = Seeds.largeResource(this.copies);
+        }
+
+        @Setup(Level.Invocation)
+        public void restore() throws Throwable {
+            Files.write(this.file.toPath(), this.source.getBytes(StandardCharsets.UTF_8));
+            CompilationUnit compUnit = new JavaParser().parse(this.source).getResult().get();
+            Set<Object> trees = new HashSet<>();
+            trees.add(Tool.newTree(this.file, compUnit));
+            this.builder = Tool.newBuilder(trees, ANNOTATIONS);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(this.file.toPath());
+            Files.deleteIfExists(this.directory);
+        }
+    }
+
+    @Benchmark
+    public int getDescription(Descriptions descriptions) throws Throwable {
+        int length = 0;
+        for (String comment : descriptions.comments) {
+            length += Tool.getDescription(descriptions.builder, comment).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int getCodeDescriptionPair(Descriptions descriptions) throws Throwable {
+        int found = 0;
+        for (String[] pair : descriptions.codeDescriptionPairs) {
+            if (Tool.getCodeDescriptionPair(descriptions.builder, pair[0], pair[1]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public void checkAndWriteAnnotations(LargeResource resource) throws Throwable {
+        Tool.checkAndWriteAnnotations(resource.builder, resource.lex, 1);
+    }
+}
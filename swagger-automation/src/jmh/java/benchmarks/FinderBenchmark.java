@@ -0,0 +1,121 @@
+package benchmarks;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: Benchmarks of the FilesToAnnotateFinder: searching the seed files for REST services, and finding the
+ * DTO objects used by a REST service. Class names are resolved against a copy of the seed files. retrieveDTOs measures
+ * warm lookups, since the finder keeps its source index and every name it has resolved between invocations, while
+ * retrieveDTOsCold forgets them first, so each invocation indexes the copy and resolves every name again.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinderBenchmark {
+
+    /**
+     * Description: Copies of the seed files to search
+     */
+    @State(Scope.Benchmark)
+    public static class Search {
+
+        @Param({"1", "4"})
+        public int threads; // worker threads used to parse the seed files
+
+        private Path directory; // copies of the seed files
+        private ArrayList<File> files; // the copied seed files
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            this.directory = Files.createTempDirectory("finder-benchmark");
+            this.files = Seeds.copyTo(this.directory);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            for (File file : this.files) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.deleteIfExists(this.directory);
+        }
+    }
+
+    /**
+     * Description: A parsed seed resource and the words of its method declarations
+     */
+    @State(Scope.Benchmark)
+    public static class Resource {
+
+        private Path directory; // copies of the seed files, which class names are resolved against
+        private ArrayList<File> files; // the copied seed files
+        private Object finder; // finder used to find the DTO objects
+        private CompilationUnit compUnit; // the seed resource searched for DTO objects
+        private String[][] methodDeclarations; // the words of every method declaration in the seed resource
+
+        @Setup(Level.Trial)
+        public void setUp() throws Throwable {
+            this.directory = Files.createTempDirectory("finder-benchmark");
+            this.files = Seeds.copyTo(this.directory);
+            this.finder = Tool.newFinder(new ArrayList<>());
+            Tool.setTypeResolver(this.finder, Collections.singletonList(this.directory.toString()));
+            this.compUnit = StaticJavaParser.parse(this.directory.resolve("OperationSuccessTestFile.java"));
+
+            List<MethodDeclaration> methods = this.compUnit.findAll(MethodDeclaration.class);
+            this.methodDeclarations = new String[methods.size()][];
+            for (int i = 0; i < methods.size(); i++) {
+                this.methodDeclarations[i] = methods.get(i).getDeclarationAsString().split(" ");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            for (File file : this.files) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.deleteIfExists(this.directory);
+        }
+    }
+
+    @Benchmark
+    public Set<?> findRESTServices(Search search) throws Throwable {
+        Object finder = Tool.newFinder(new ArrayList<>(search.files));//a new finder parses every file again
+        Tool.findRESTServices(finder, null, search.threads);
+        return Tool.getRESTServices(finder);
+    }
+
+    @Benchmark
+    public Set<?> retrieveDTOs(Resource resource) throws Throwable {
+        return Tool.retrieveDTOs(resource.finder, resource.compUnit);
+    }
+
+    @Benchmark
+    public Set<?> retrieveDTOsCold(Resource resource) throws Throwable {
+        Tool.invalidateSourceIndexes(resource.finder);//the copy is indexed and every name resolved again
+        return Tool.retrieveDTOs(resource.finder, resource.compUnit);
+    }
+
+    @Benchmark
+    public int createListOfDTOsPresentInMethod(Resource resource) throws Throwable {
+        int found = 0;
+        for (String[] methodDeclaration : resource.methodDeclarations) {
+            found += Tool.createListOfDTOsPresentInMethod(resource.finder, methodDeclaration).size();
+        }
+        return found;
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: Benchmarks of indexing the methods of a REST resource with AnnotationEngine.findTargets() (each method
+ * with its JavaDoc comment and existing annotations) as the resource grows from 10 to 1000 methods. Every invocation
+ * indexes 1000 methods in total, spread over as many copies of the resource as it takes, and the score is reported per
+ * method. Indexing walks each file once, so the score should stay roughly the same for every class size; a score that
+ * grows with the class size means the index has become quadratic again. MethodIndexTest checks the same thing by
+ * counting the nodes visited.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodIndexBenchmark {
+
+    static final int METHODS_PER_INVOCATION = 1000; // methods indexed by every invocation
+
+    /**
+     * Description: Copies of a generated resource holding METHODS_PER_INVOCATION methods between them
+     */
+    @State(Scope.Benchmark)
+    public static class Resources {
+
+        @Param({"10", "100", "1000"})
+        public int methods; // methods in each copy of the resource
+
+        private List<CompilationUnit> copies; // the parsed copies, which indexing does not modify
+        private Object engine; // engine whose index is measured
+
+        @Setup(Level.Trial)
+        public void setUp() throws Throwable {
+            String source = Seeds.generatedResource("GeneratedResource", this.methods);
+            this.copies = new ArrayList<>();
+            for (int i = 0; i < METHODS_PER_INVOCATION / this.methods; i++) {
+                this.copies.add(new JavaParser().parse(source).getResult().get());
+            }
+            this.engine = Tool.getEngine(Tool.newBuilder(new HashSet<>(), FileBuilderBenchmark.ANNOTATIONS));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(METHODS_PER_INVOCATION)
+    public int findTargets(Resources resources) throws Throwable {
+        int indexed = 0;
+        for (CompilationUnit compUnit : resources.copies) {
+            indexed += Tool.findTargets(resources.engine, compUnit).size();
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: Benchmarks of printing a large REST resource with the LexicalPreservingPrinter, which the tool uses to
+ * write annotated files, against the plain pretty printer. When modified is true, an annotation is added to every
+ * method first, as the tool does before it prints a file.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrintBenchmark {
+
+    @Param({"25"})
+    public int copies; // copies of each method of the seed resource
+
+    @Param({"false", "true"})
+    public boolean modified; // whether every method is annotated before printing
+
+    private CompilationUnit preserved; // the resource, set up with lexical preservation
+    private CompilationUnit plain; // the same resource, not set up
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String source = Seeds.largeResource(this.copies);
+        this.preserved = LexicalPreservingPrinter.setup(new JavaParser().parse(source).getResult().get());
+        this.plain = new JavaParser().parse(source).getResult().get();
+        if (this.modified) {
+            for (CompilationUnit compUnit : new CompilationUnit[]{this.preserved, this.plain}) {
+                for (MethodDeclaration method : compUnit.findAll(MethodDeclaration.class)) {
+                    method.addAnnotation("Deprecated");
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String lexicalPreservingPrint() {
+        return LexicalPreservingPrinter.print(this.preserved);
+    }
+
+    @Benchmark
+    public String prettyPrint() {
+        return this.plain.toString();
+    }
+}
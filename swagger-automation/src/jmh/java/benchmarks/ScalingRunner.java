@@ -0,0 +1,154 @@
+package benchmarks;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Description: This class times the tool's whole main pipeline on a synthetic tree written by the CorpusGenerator, at
+ * several thread counts, and writes one CSV row per run with the files processed per second and the peak heap. Every
+ * run starts from a fresh copy of the tree, since a run rewrites the files it annotates. The runs share this JVM, so
+ * one unrecorded run warms up the JIT first. Peak heap is the sum of the peak usage of every heap memory pool, which
+ * are reset (after a GC) before each run.
+ * <p>
+ * Options (every other option is passed to the CorpusGenerator, ex. --resources=10000):
+ * --threads=LIST      comma separated thread counts (default 1,2,4,8,16)
+ * --runs=N            recorded runs per thread count (default 3)
+ * --csv=FILE          file to write the CSV to (default stdout)
+ * --work=DIR          directory for the tree and its copies (default a new temporary directory)
+ */
+
+public class ScalingRunner {
+
+    /**
+     * Description: Generates the tree and runs the pipeline at every thread count
+     *
+     * @param args the options
+     * @throws Throwable if the tree cannot be written or a run fails
+     */
+    public static void main(String[] args) throws Throwable {
+        List<Integer> threadCounts = new ArrayList<>();
+        int runs = 3;
+        String csv = null;
+        Path work = null;
+        List<String> generatorArgs = new ArrayList<>();
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--threads=")) {
+                for (String threads : value.split(",")) {
+                    threadCounts.add(Integer.parseInt(threads.trim()));
+                }
+            } else if (arg.startsWith("--runs=")) {
+                runs = Math.max(1, Integer.parseInt(value));
+            } else if (arg.startsWith("--csv=")) {
+                csv = value;
+            } else if (arg.startsWith("--work=")) {
+                work = Paths.get(value);
+            } else {
+                generatorArgs.add(arg);
+            }
+        }
+        if (threadCounts.isEmpty()) {
+            for (int threads = 1; threads <= 16; threads *= 2) {
+                threadCounts.add(threads);
+            }
+        }
+        boolean temporary = work == null; // whether the work directory is ours to remove
+        if (temporary) {
+            work = Files.createTempDirectory("scaling-runner");
+        }
+
+        Path template = work.resolve("template");
+        CorpusGenerator generator = CorpusGenerator.fromArgs(generatorArgs.toArray(new String[0]));
+        generator.setOut(template);
+        int files = generator.generate();
+        System.err.println("Generated " + files + " files in " + template);
+
+        try (PrintStream out = csv == null ? new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8")
+                : new PrintStream(new FileOutputStream(csv), true, "UTF-8")) {
+            out.println("threads,run,files,seconds,files_per_second,peak_heap_mb");
+            run(template, work.resolve("warmup"), threadCounts.get(0));//warming up the JIT, not recorded
+            for (int threads : threadCounts) {
+                for (int run = 1; run <= runs; run++) {
+                    double[] result = run(template, work.resolve("run"), threads);
+                    out.println(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.1f,%.1f", threads, run, files, result[0],
+                            files / result[0], result[1] / (1024 * 1024)));
+                    System.err.println("threads=" + threads + " run=" + run + " done");
+                }
+            }
+        }
+        delete(temporary ? work : template);
+    }
+
+    /**
+     * Description: Runs the pipeline once on a fresh copy of the tree
+     *
+     * @param template the generated tree
+     * @param copy     the directory to copy the tree to
+     * @param threads  the number of worker threads
+     * @return the wall time in seconds and the peak heap in bytes
+     * @throws Throwable if the tree cannot be copied or the run fails
+     */
+    private static double[] run(Path template, Path copy, int threads) throws Throwable {
+        delete(copy);
+        copyTree(template, copy);
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream(), false, StandardCharsets.UTF_8.name()));
+        //^the pipeline's summary is not part of the CSV
+        long start = System.nanoTime();
+        try {
+            Tool.main(new String[]{"--root=" + copy.toAbsolutePath(), "--threads=" + threads});
+        } finally {
+            System.setOut(stdout);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        delete(copy);
+        return new double[]{seconds, peak};
+    }
+
+    private static void copyTree(Path from, Path to) throws IOException {
+        try (Stream<Path> paths = Files.walk(from)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path target = to.resolve(from.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
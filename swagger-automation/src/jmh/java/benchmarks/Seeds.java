@@ -0,0 +1,144 @@
+package benchmarks;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Description: This class provides the benchmark inputs, which are built from the *SuccessTestFile and *FailedTestFile
+ * classes next to the tool's sources. The benchmarks are expected to run from the swagger-automation directory; the
+ * directory holding the seed files can be changed with -Dfixtures.dir (pass it to the forked JVMs with
+ * -jvmArgsAppend).
+ */
+
+final class Seeds {
+
+    static final String LARGE_RESOURCE_SEED = "ApiResponseSuccessTestFile"; // the resource copied into a large one
+
+    private Seeds() {
+
+    }
+
+    /**
+     * Description: Finds the seed files
+     *
+     * @return the seed files, sorted by name
+     * @throws IOException if no seed files are found
+     */
+    static List<File> files() throws IOException {
+        File directory = new File(System.getProperty("fixtures.dir", "src/main/java"));
+        File[] files = directory.listFiles((dir, name) -> name.contains("TestFile") && name.endsWith(".java"));
+        if (files == null || files.length == 0) {
+            throw new IOException("No seed files in " + directory.getAbsolutePath() + ", set -Dfixtures.dir");
+        }
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * Description: Finds a seed file by class name
+     *
+     * @param className the class name of the seed file
+     * @return the seed file
+     * @throws IOException if the seed file is not found
+     */
+    static File file(String className) throws IOException {
+        for (File file : files()) {
+            if (file.getName().equals(className + ".java")) {
+                return file;
+            }
+        }
+        throw new IOException("No seed file named " + className);
+    }
+
+    /**
+     * Description: Copies the seed files into a directory, so that the benchmarks never rewrite the seeds
+     *
+     * @param directory the directory to copy to
+     * @return the copies
+     * @throws IOException if a file cannot be copied
+     */
+    static ArrayList<File> copyTo(Path directory) throws IOException {
+        ArrayList<File> copies = new ArrayList<>();
+        for (File file : files()) {
+            Path copy = directory.resolve(file.getName());
+            Files.copy(file.toPath(), copy, StandardCopyOption.REPLACE_EXISTING);
+            copies.add(copy.toFile());
+        }
+        return copies;
+    }
+
+    /**
+     * Description: Reads a file as UTF-8
+     *
+     * @param file the file to read
+     * @return the content of the file
+     * @throws IOException if the file cannot be read
+     */
+    static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Description: Builds a large REST resource by repeating every method of the seed resource. Each copy of a method
+     * gets a numbered name, so the resource still compiles in shape and every copy is annotated.
+     *
+     * @param copies the number of copies of each method
+     * @return the source of the large resource, declaring LARGE_RESOURCE_SEED
+     * @throws IOException if the seed resource cannot be read
+     */
+    static String largeResource(int copies) throws IOException {
+        CompilationUnit compUnit = StaticJavaParser.parse(read(file(LARGE_RESOURCE_SEED)));
+        ClassOrInterfaceDeclaration resource = compUnit.getClassByName(LARGE_RESOURCE_SEED).get();
+        List<MethodDeclaration> methods = new ArrayList<>(resource.getMethods());
+        for (int copy = 1; copy < copies; copy++) {
+            for (MethodDeclaration method : methods) {
+                resource.addMember(method.clone().setName(method.getNameAsString() + copy));
+            }
+        }
+        return compUnit.toString();
+    }
+
+    /**
+     * Description: Builds a REST resource with the given number of generated methods. Every method has a JavaDoc
+     * comment, a path parameter, and @StatusCodes, and is missing every swagger annotation, so each method costs the
+     * same to index whatever the size of the class.
+     *
+     * @param className the name of the resource class
+     * @param methods   the number of methods
+     * @return the source of the resource
+     */
+    static String generatedResource(String className, int methods) {
+        StringBuilder source = new StringBuilder();
+        source.append("import javax.ws.rs.*;\n")
+                .append("import com.webcohesion.enunciate.metadata.rs.ResponseCode;\n")
+                .append("import com.webcohesion.enunciate.metadata.rs.StatusCodes;\n\n")
+                .append("@Path(\"/").append(className.toLowerCase()).append("\")\n")
+                .append("public class ").append(className).append(" {\n");
+        for (int i = 0; i < methods; i++) {
+            source.append("\n    /**\n")
+                    .append("     * Handles item ").append(i).append(" of the resource.\n")
+                    .append("     *\n")
+                    .append("     * @param id the identifier of the item\n")
+                    .append("     */\n")
+                    .append("    @GET\n")
+                    .append("    @Path(\"/op").append(i).append("/{id}\")\n")
+                    .append("    @StatusCodes({@ResponseCode(code = 200, condition = \"Success\")})\n")
+                    .append("    public String op").append(i).append("(@PathParam(\"id\") long id) {\n")
+                    .append("        return \"op").append(i).append("\";\n")
+                    .append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
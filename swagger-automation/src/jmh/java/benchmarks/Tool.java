@@ -0,0 +1,159 @@
+package benchmarks;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Description: This class gives the benchmarks access to the tool's classes. The tool's classes are in the default
+ * package, which code in a named package cannot refer to, and JMH cannot generate benchmarks in the default package.
+ * Every method is looked up once into a static final MethodHandle, which the JIT compiles like a direct call, so the
+ * indirection does not show up in the measurements.
+ */
+
+final class Tool {
+
+    private static final MethodHandle MAIN; // FilesToAnnotateFinder.main(args)
+    private static final MethodHandle NEW_FINDER; // FilesToAnnotateFinder(ArrayList<File>)
+    private static final MethodHandle FIND_REST_SERVICES; // FilesToAnnotateFinder.findRESTServices(lex, threads)
+    private static final MethodHandle GET_REST_SERVICES; // FilesToAnnotateFinder.getRESTServices()
+    private static final MethodHandle RETRIEVE_DTOS; // FilesToAnnotateFinder.retrieveDTOs(compUnit)
+    private static final MethodHandle DTOS_IN_METHOD; // FilesToAnnotateFinder.createListOfDTOsPresentInMethod(words)
+    private static final MethodHandle SET_TYPE_RESOLVER; // FilesToAnnotateFinder.setTypeResolver(resolver)
+    private static final MethodHandle INVALIDATE_SOURCE_INDEXES; // FilesToAnnotateFinder.invalidateSourceIndexes()
+    private static final MethodHandle NEW_TYPE_RESOLVER; // TypeResolver(FilesToAnnotateFinder, List<String>)
+    private static final MethodHandle NEW_BUILDER; // FileBuilder(Set<AbstractSyntaxTree>, ArrayList<String>)
+    private static final MethodHandle GET_DESCRIPTION; // FileBuilder.getDescription(content)
+    private static final MethodHandle GET_CODE_DESCRIPTION_PAIR; // FileBuilder.getCodeDescriptionPair(code, description)
+    private static final MethodHandle CHECK_AND_WRITE; // FileBuilder.checkAndWriteAnnotations(lex, threads)
+    private static final MethodHandle GET_ENGINE; // FileBuilder.getEngine()
+    private static final MethodHandle FIND_TARGETS; // AnnotationEngine.findTargets(compUnit)
+    private static final MethodHandle NEW_TREE; // AbstractSyntaxTree(File, CompilationUnit)
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> finder = Class.forName("FilesToAnnotateFinder");
+            Class<?> builder = Class.forName("FileBuilder");
+            Class<?> tree = Class.forName("AbstractSyntaxTree");
+            Class<?> engine = Class.forName("AnnotationEngine");
+            Class<?> resolver = Class.forName("TypeResolver");
+
+            MAIN = lookup.findStatic(finder, "main", MethodType.methodType(void.class, String[].class));
+            NEW_FINDER = lookup.findConstructor(finder, MethodType.methodType(void.class, ArrayList.class))
+                    .asType(MethodType.methodType(Object.class, ArrayList.class));
+            FIND_REST_SERVICES = lookup.findVirtual(finder, "findRESTServices",
+                    MethodType.methodType(void.class, LexicalPreservingPrinter.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, LexicalPreservingPrinter.class, int.class));
+            GET_REST_SERVICES = lookup.findVirtual(finder, "getRESTServices", MethodType.methodType(Set.class))
+                    .asType(MethodType.methodType(Set.class, Object.class));
+            RETRIEVE_DTOS = lookup.findVirtual(finder, "retrieveDTOs",
+                    MethodType.methodType(Set.class, CompilationUnit.class))
+                    .asType(MethodType.methodType(Set.class, Object.class, CompilationUnit.class));
+            DTOS_IN_METHOD = lookup.findVirtual(finder, "createListOfDTOsPresentInMethod",
+                    MethodType.methodType(Set.class, String[].class))
+                    .asType(MethodType.methodType(Set.class, Object.class, String[].class));
+            SET_TYPE_RESOLVER = lookup.findVirtual(finder, "setTypeResolver", MethodType.methodType(void.class, resolver))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            INVALIDATE_SOURCE_INDEXES = lookup.findVirtual(finder, "invalidateSourceIndexes",
+                    MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            NEW_TYPE_RESOLVER = lookup.findConstructor(resolver, MethodType.methodType(void.class, finder, List.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, List.class));
+
+            NEW_BUILDER = lookup.findConstructor(builder, MethodType.methodType(void.class, Set.class, ArrayList.class))
+                    .asType(MethodType.methodType(Object.class, Set.class, ArrayList.class));
+            GET_DESCRIPTION = lookup.findVirtual(builder, "getDescription",
+                    MethodType.methodType(String.class, String.class))
+                    .asType(MethodType.methodType(String.class, Object.class, String.class));
+            GET_CODE_DESCRIPTION_PAIR = lookup.findVirtual(builder, "getCodeDescriptionPair",
+                    MethodType.methodType(Map.Entry.class, String.class, String.class))
+                    .asType(MethodType.methodType(Map.Entry.class, Object.class, String.class, String.class));
+            CHECK_AND_WRITE = lookup.findVirtual(builder, "checkAndWriteAnnotations",
+                    MethodType.methodType(void.class, LexicalPreservingPrinter.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, LexicalPreservingPrinter.class, int.class));
+            GET_ENGINE = lookup.findVirtual(builder, "getEngine", MethodType.methodType(engine))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            FIND_TARGETS = lookup.findVirtual(engine, "findTargets",
+                    MethodType.methodType(List.class, CompilationUnit.class))
+                    .asType(MethodType.methodType(List.class, Object.class, CompilationUnit.class));
+
+            NEW_TREE = lookup.findConstructor(tree, MethodType.methodType(void.class, File.class, CompilationUnit.class))
+                    .asType(MethodType.methodType(Object.class, File.class, CompilationUnit.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Tool() {
+
+    }
+
+    static void main(String[] args) throws Throwable {
+        MAIN.invokeExact(args);
+    }
+
+    static Object newFinder(ArrayList<File> files) throws Throwable {
+        return NEW_FINDER.invokeExact(files);
+    }
+
+    static void findRESTServices(Object finder, LexicalPreservingPrinter lex, int threads) throws Throwable {
+        FIND_REST_SERVICES.invokeExact(finder, lex, threads);
+    }
+
+    static Set<?> getRESTServices(Object finder) throws Throwable {
+        return (Set<?>) GET_REST_SERVICES.invokeExact(finder);
+    }
+
+    static void setTypeResolver(Object finder, List<String> sourceDirectories) throws Throwable {
+        SET_TYPE_RESOLVER.invokeExact(finder, (Object) NEW_TYPE_RESOLVER.invokeExact(finder, sourceDirectories));
+    }
+
+    static void invalidateSourceIndexes(Object finder) throws Throwable {
+        INVALIDATE_SOURCE_INDEXES.invokeExact(finder);
+    }
+
+    static Set<?> retrieveDTOs(Object finder, CompilationUnit compUnit) throws Throwable {
+        return (Set<?>) RETRIEVE_DTOS.invokeExact(finder, compUnit);
+    }
+
+    static Set<?> createListOfDTOsPresentInMethod(Object finder, String[] methodDecl) throws Throwable {
+        return (Set<?>) DTOS_IN_METHOD.invokeExact(finder, methodDecl);
+    }
+
+    static Object newBuilder(Set<Object> trees, ArrayList<String> annotations) throws Throwable {
+        return NEW_BUILDER.invokeExact((Set) trees, annotations);
+    }
+
+    static String getDescription(Object builder, String content) throws Throwable {
+        return (String) GET_DESCRIPTION.invokeExact(builder, content);
+    }
+
+    static Map.Entry<?, ?> getCodeDescriptionPair(Object builder, String code, String description) throws Throwable {
+        return (Map.Entry<?, ?>) GET_CODE_DESCRIPTION_PAIR.invokeExact(builder, code, description);
+    }
+
+    static void checkAndWriteAnnotations(Object builder, LexicalPreservingPrinter lex, int threads) throws Throwable {
+        CHECK_AND_WRITE.invokeExact(builder, lex, threads);
+    }
+
+    static Object getEngine(Object builder) throws Throwable {
+        return GET_ENGINE.invokeExact(builder);
+    }
+
+    static List<?> findTargets(Object engine, CompilationUnit compUnit) throws Throwable {
+        return (List<?>) FIND_TARGETS.invokeExact(engine, compUnit);
+    }
+
+    static Object newTree(File file, CompilationUnit compUnit) throws Throwable {
+        return NEW_TREE.invokeExact(file, compUnit);
+    }
+}
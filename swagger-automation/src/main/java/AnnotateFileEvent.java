@@ -0,0 +1,73 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import jdk.jfr.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Description: JDK Flight Recorder event for a REST service or DTO file being annotated, not including the time taken
+ * to print and write it (see WriteFileEvent). The fields are only filled in when the event is recorded, so the event
+ * costs nothing while no recording is running.
+ */
+
+@Name("swaggerautomation.AnnotateFile")
+@Label("Annotate File")
+@Category("Swagger Automation")
+@Description("A REST service or DTO file annotated with swagger annotations")
+@StackTrace(false)
+public class AnnotateFileEvent extends Event {
+
+    static final String RESOURCE = "REST service"; // kind of a REST service file
+    static final String DTO = "DTO"; // kind of a DTO file
+
+    private static final Set<String> SWAGGER_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "Operation", "Parameter", "Schema", "ApiResponse")); // names of the annotations the tool adds
+
+    @Label("Path")
+    String path; // the file annotated
+
+    @Label("Kind")
+    String kind; // RESOURCE or DTO
+
+    @Label("Node Count")
+    int nodes; // nodes in the file's abstract syntax tree once annotated
+
+    @Label("Methods Annotated")
+    int methods; // methods that were missing annotations
+
+    @Label("Annotations Added")
+    int annotationsAdded; // swagger annotations added to the file
+
+    /**
+     * Description: Counts the swagger annotations in a file. Comparing the count before and after a file is annotated
+     * gives the number of annotations added, since the tool never removes swagger annotations.
+     *
+     * @param compUnit the file to count the annotations of
+     * @return the number of swagger annotations
+     */
+    static int countSwaggerAnnotations(CompilationUnit compUnit) {
+        return compUnit.findAll(AnnotationExpr.class,
+                annotation -> SWAGGER_ANNOTATIONS.contains(annotation.getNameAsString())).size();
+    }
+
+    /**
+     * Description: Fills in the fields of the event and commits it
+     *
+     * @param path     the file annotated
+     * @param kind     RESOURCE or DTO
+     * @param compUnit the abstract syntax tree of the annotated file
+     * @param methods  the number of methods that were missing annotations
+     * @param before   the number of swagger annotations before the file was annotated
+     */
+    void commit(String path, String kind, CompilationUnit compUnit, int methods, int before) {
+        this.path = path;
+        this.kind = kind;
+        this.nodes = compUnit.findAll(Node.class).size();
+        this.methods = methods;
+        this.annotationsAdded = countSwaggerAnnotations(compUnit) - before;
+        commit();
+    }
+}
@@ -0,0 +1,170 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.visitor.TreeVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: This class adds annotations to the methods of a file using a list of registered AnnotationGenerators.
+ * The file is walked once by a single visitor. Each method's comment, parameters, and existing annotations are found
+ * when it is visited and shared by every generator, instead of each kind of annotation walking the file and the
+ * method again. Annotating is split into two steps so that a file is only prepared for modification if a generator
+ * needs to modify it: findTargets() analyzes the file without modifying it, and annotate() modifies it.
+ */
+
+public class AnnotationEngine {
+
+    private List<AnnotationGenerator> generators; // generators in the order their annotations are added
+    private LongAdder nodesVisited; // nodes visited by findTargets(), over every file it was called on
+
+    /**
+     * Description: Default constructor for the AnnotationEngine. No generators are registered.
+     */
+    public AnnotationEngine() {
+        this.generators = new ArrayList<>();
+        this.nodesVisited = new LongAdder();
+    }
+
+    /**
+     * Description: Registers a generator. Generators add their annotations in the order they were registered.
+     *
+     * @param generator the generator to register
+     * @return this engine
+     */
+    public AnnotationEngine register(AnnotationGenerator generator) {
+        this.generators.add(generator);
+        return this;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the registered generators
+     *
+     * @return the registered generators
+     */
+    public List<AnnotationGenerator> getGenerators() {
+        return this.generators;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of nodes visited by findTargets(). Files are searched on
+     * several worker threads, so the count is summed over every file searched so far.
+     *
+     * @return the number of nodes visited
+     */
+    public long getNodesVisited() {
+        return this.nodesVisited.sum();
+    }
+
+    /**
+     * Description: Finds every method in the file, including the methods of nested and inner classes, that at least
+     * one generator needs to annotate. The file is not modified.
+     *
+     * @param compUnit the file to search
+     * @return the methods to annotate, in the order they appear
+     */
+    public List<AnnotationTarget> findTargets(CompilationUnit compUnit) {
+        return findTargets(compUnit, new ArrayList<>());
+    }
+
+    /**
+     * Description: Finds the methods to annotate like findTargets(compUnit), and also adds every method of the file to
+     * the given list, so that a caller that needs all of the methods does not have to walk the file again.
+     *
+     * @param compUnit the file to search
+     * @param methods  the list to add every method of the file to, in the order they appear
+     * @return the methods to annotate, in the order they appear
+     */
+    public List<AnnotationTarget> findTargets(CompilationUnit compUnit, List<MethodDeclaration> methods) {
+        TargetFinder finder = new TargetFinder(compUnit, methods);
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.ANNOTATION)) {
+            finder.visitPreOrder(compUnit);
+        }
+        this.nodesVisited.add(finder.visited);//once per file, not once per node
+        return finder.results;
+    }
+
+    /**
+     * Description: Annotates the given methods. Only the generators that need to annotate a method are called for it.
+     * Each generator annotates a method and then its parameters before the next generator is called, so annotations
+     * and imports are added in the order the generators were registered.
+     *
+     * @param targets the methods to annotate, as returned by findTargets()
+     */
+    public void annotate(List<AnnotationTarget> targets) {
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.ANNOTATION)) {
+            for (AnnotationTarget target : targets) {
+                for (AnnotationGenerator generator : target.getGenerators()) {
+                    generator.annotateMethod(target);
+                    List<Parameter> parameters = target.getParameters();
+                    for (int i = 0; i < parameters.size(); i++) {
+                        generator.annotateParameter(target, parameters.get(i), i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Description: Retrieves the comment of the method. TODO comments are ignored since they do not provide useful
+     * information when adding swagger annotations.
+     *
+     * @param method the method to retrieve the comment of
+     * @return the comment, null if the method has no comment or only a TODO comment
+     */
+    public static Comment commentOf(MethodDeclaration method) {
+        Optional<Comment> opt = method.getComment(); // each method has a single comment
+        if (opt.isPresent() && !opt.get().getContent().toUpperCase().startsWith("TODO")) {
+            return opt.get();
+        }
+        return null;
+    }
+
+    /**
+     * Description: This class walks a file once, visiting every node, and records the methods a generator needs to
+     * annotate
+     */
+    private class TargetFinder extends TreeVisitor {
+        private CompilationUnit compUnit;
+        private List<MethodDeclaration> methods; // every method visited
+        private List<AnnotationTarget> results = new ArrayList<>(); // the methods to annotate
+        private long visited; // nodes visited
+
+        private TargetFinder(CompilationUnit compUnit, List<MethodDeclaration> methods) {
+            this.compUnit = compUnit;
+            this.methods = methods;
+        }
+
+        @Override
+        public void process(Node node) {
+            this.visited++;
+            if (!(node instanceof MethodDeclaration)) {
+                return;
+            }
+            MethodDeclaration method = (MethodDeclaration) node;
+            this.methods.add(method);
+            List<Parameter> parameters = new ArrayList<>(method.getParameters());
+            List<AnnotationExpr> annotations = new ArrayList<>(method.getAnnotations());
+            //^plain lists, since adding the nodes to a new NodeList would take them from their parent node
+            for (Parameter parameter : parameters) {
+                annotations.addAll(parameter.getAnnotations());
+            }
+            AnnotationTarget target = new AnnotationTarget(this.compUnit, method, commentOf(method), parameters,
+                    new AnnotationIndex(annotations));
+            for (AnnotationGenerator generator : generators) {
+                if (generator.needsAnnotations(target)) {
+                    target.getGenerators().add(generator);
+                }
+            }
+            if (!target.getGenerators().isEmpty()) {
+                this.results.add(target);
+            }
+        }
+    }
+}
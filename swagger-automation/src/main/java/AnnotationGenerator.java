@@ -0,0 +1,42 @@
+import com.github.javaparser.ast.body.Parameter;
+
+/**
+ * Description: This interface is implemented by every kind of annotation the AnnotationEngine can add. The engine walks
+ * a file once and hands each method (and each of its parameters) to every registered generator, so a new kind of
+ * annotation can be added by registering another generator instead of walking the file again.
+ * <p>
+ * A file is analyzed before it is modified: needsAnnotations() must not modify the method. annotateMethod() and
+ * annotateParameter() are only called once lexical preservation has been set up on the file.
+ */
+
+public interface AnnotationGenerator {
+
+    /**
+     * Description: Checks whether this generator would modify the method or its parameters
+     *
+     * @param target the method to check
+     * @return true if annotateMethod() or annotateParameter() would modify the method
+     */
+    boolean needsAnnotations(AnnotationTarget target);
+
+    /**
+     * Description: Adds this generator's annotations to the method. Called before annotateParameter() is called for
+     * the method's parameters.
+     *
+     * @param target the method to annotate
+     */
+    default void annotateMethod(AnnotationTarget target) {
+
+    }
+
+    /**
+     * Description: Adds this generator's annotations to a single parameter of the method
+     *
+     * @param target    the method the parameter belongs to
+     * @param parameter the parameter to annotate
+     * @param index     the position of the parameter in the method declaration
+     */
+    default void annotateParameter(AnnotationTarget target, Parameter parameter, int index) {
+
+    }
+}
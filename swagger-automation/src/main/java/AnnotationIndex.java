@@ -0,0 +1,95 @@
+import com.github.javaparser.ast.expr.AnnotationExpr;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Description: This class records which of the annotations the FileBuilder cares about are present on a method and its
+ * parameters. Each annotation is a bit in a single int. The names are read from AnnotationExpr.getName(), so the
+ * annotations (which can hold large arrays such as @StatusCodes) are never printed. The index is built once per method
+ * and shared by every put*Annotation() method.
+ */
+
+public class AnnotationIndex {
+
+    public static final int OPERATION = 1;
+    public static final int PARAMETER = 1 << 1;
+    public static final int SCHEMA = 1 << 2;
+    public static final int API_RESPONSE = 1 << 3;
+    public static final int PATH = 1 << 4;
+    public static final int STATUS_CODES = 1 << 5;
+
+    private static final Map<String, Integer> BITS = new HashMap<>(); // simple annotation name -> bit
+
+    static {
+        BITS.put("Operation", OPERATION);
+        BITS.put("Parameter", PARAMETER);
+        BITS.put("Schema", SCHEMA);
+        BITS.put("ApiResponse", API_RESPONSE);
+        BITS.put("Path", PATH);
+        BITS.put("StatusCodes", STATUS_CODES);
+    }
+
+    private int mask; // bits of the annotations present
+
+    /**
+     * Description: Creates an index of the given annotations
+     *
+     * @param annotations the annotations present on a method and its parameters
+     */
+    public AnnotationIndex(Collection<AnnotationExpr> annotations) {
+        for (AnnotationExpr annotation : annotations) {
+            this.mask |= bitOf(annotation.getName().getIdentifier());
+        }
+    }
+
+    /**
+     * Description: Retrieves the bit of an annotation name. The name may start with @ and may be qualified.
+     *
+     * @param name the annotation name, ex) @Operation
+     * @return the bit of the annotation, 0 if the annotation is not indexed
+     */
+    public static int bitOf(String name) {
+        String simpleName = name.substring(name.lastIndexOf('.') + 1);
+        if (simpleName.startsWith("@")) {
+            simpleName = simpleName.substring(1);
+        }
+        Integer bit = BITS.get(simpleName);
+        return bit == null ? 0 : bit;
+    }
+
+    /**
+     * Description: Combines the bits of the given annotation names
+     *
+     * @param names the annotation names, ex) @Operation
+     * @return the bits of the annotations
+     */
+    public static int maskOf(Collection<String> names) {
+        int mask = 0;
+        for (String name : names) {
+            mask |= bitOf(name);
+        }
+        return mask;
+    }
+
+    /**
+     * Description: Checks whether the annotation is present
+     *
+     * @param bit the bit of the annotation, ex) AnnotationIndex.OPERATION
+     * @return true if the annotation is present
+     */
+    public boolean has(int bit) {
+        return (this.mask & bit) != 0;
+    }
+
+    /**
+     * Description: Checks whether every one of the annotations is present
+     *
+     * @param bits the bits of the annotations
+     * @return true if every annotation is present
+     */
+    public boolean hasAll(int bits) {
+        return (this.mask & bits) == bits;
+    }
+}
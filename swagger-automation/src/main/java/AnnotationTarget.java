@@ -0,0 +1,118 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.comments.JavadocComment;
+import com.github.javaparser.javadoc.JavadocBlockTag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: This class represents a single method found by the AnnotationEngine, along with everything the
+ * generators need to know about it. The method's comment, parameters, and existing annotations are found once when the
+ * method is visited and shared by every generator.
+ */
+
+public class AnnotationTarget {
+
+    private CompilationUnit compUnit; // the file the method belongs to
+    private MethodDeclaration method;
+    private Comment comment; // the method's comment, null if it has none or it is a TODO comment
+    private List<Parameter> parameters; // the method's parameters, in declaration order
+    private AnnotationIndex existingAnnotations; // annotations on the method and its parameters before annotating
+    private List<String> parameterDescriptions; // @param descriptions of the JavaDoc comment, parsed on first use
+    private List<AnnotationGenerator> generators; // the generators that need to annotate this method
+
+    /**
+     * Description: Default constructor for the AnnotationTarget
+     *
+     * @param compUnit            the file the method belongs to
+     * @param method              the method
+     * @param comment             the method's comment, null if it has none
+     * @param parameters          the method's parameters
+     * @param existingAnnotations the annotations on the method and its parameters
+     */
+    public AnnotationTarget(CompilationUnit compUnit, MethodDeclaration method, Comment comment,
+                            List<Parameter> parameters, AnnotationIndex existingAnnotations) {
+        this.compUnit = compUnit;
+        this.method = method;
+        this.comment = comment;
+        this.parameters = parameters;
+        this.existingAnnotations = existingAnnotations;
+        this.generators = new ArrayList<>();
+    }
+
+    /**
+     * Description: Retrieves the descriptions of the @param tags of the method's JavaDoc comment, in the order they
+     * appear. The comment is only parsed once, no matter how many generators or parameters ask for it.
+     *
+     * @return the parameter descriptions, null if the method has no JavaDoc comment
+     */
+    public List<String> getParameterDescriptions() {
+        if (this.parameterDescriptions == null && this.comment instanceof JavadocComment) {
+            List<String> results = new ArrayList<>();
+            for (JavadocBlockTag tag : ((JavadocComment) this.comment).parse().getBlockTags()) {
+                if (tag.getType().toString().equalsIgnoreCase("param")) {//getting all param descriptions
+                    results.add(tag.getContent().toText());
+                }
+            }
+            this.parameterDescriptions = results;
+        }
+        return this.parameterDescriptions;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the file the method belongs to
+     *
+     * @return the abstract syntax tree of the file
+     */
+    public CompilationUnit getCompilationUnit() {
+        return this.compUnit;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the method
+     *
+     * @return the method
+     */
+    public MethodDeclaration getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the method's comment
+     *
+     * @return the comment, null if the method has no comment or only a TODO comment
+     */
+    public Comment getComment() {
+        return this.comment;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the method's parameters
+     *
+     * @return the parameters, in declaration order
+     */
+    public List<Parameter> getParameters() {
+        return this.parameters;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the annotations present before the method was annotated
+     *
+     * @return the index of the existing annotations
+     */
+    public AnnotationIndex getExistingAnnotations() {
+        return this.existingAnnotations;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the generators that need to annotate this method
+     *
+     * @return the generators, in the order they were registered
+     */
+    public List<AnnotationGenerator> getGenerators() {
+        return this.generators;
+    }
+}
@@ -0,0 +1,91 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.expr.Name;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: This class is a cache of pre-built annotation nodes that are cloned whenever an annotation is added.
+ * NodeWithAnnotations.addAndGetAnnotation() runs the JavaParser name parser on every call to build the name of the
+ * annotation, so the empty annotation of each kind (ex. @Operation()) is built once and then cloned. The nodes created
+ * are the same as the nodes created by addAndGetAnnotation(), so the generated source does not change.
+ */
+
+public class AnnotationTemplates {
+
+    private static Map<String, NormalAnnotationExpr> annotations = new ConcurrentHashMap<>(); // class name -> template
+    private static AtomicLong hits = new AtomicLong(); // number of nodes cloned from an existing template
+    private static AtomicLong misses = new AtomicLong(); // number of templates built
+
+    private AnnotationTemplates() {
+
+    }
+
+    /**
+     * Description: Adds an empty annotation of the given class to the node and queues its import statement with the
+     * file's ImportManager. Once the queued imports are applied, this has the same result as
+     * node.addAndGetAnnotation(clazz).
+     *
+     * @param node  the node to annotate
+     * @param clazz the class of the annotation to add
+     * @return the annotation added, for its pairs to be added
+     */
+    public static NormalAnnotationExpr addAndGetAnnotation(NodeWithAnnotations<?> node, Class<? extends Annotation> clazz) {
+        ImportManager imports = ImportManager.of((Node) node);
+        if (imports != null) {//queuing the import, it is added to the file when the file is written
+            imports.add(clazz);
+        }
+        NormalAnnotationExpr template = annotations.get(clazz.getName());
+        if (template == null) {
+            misses.incrementAndGet();
+            template = new NormalAnnotationExpr(new Name(clazz.getSimpleName()), new NodeList<>());
+            annotations.putIfAbsent(clazz.getName(), template);
+        } else {
+            hits.incrementAndGet();
+        }
+        NormalAnnotationExpr ann = template.clone();
+        node.addAnnotation(ann);
+        RunReport.annotationAdded(clazz.getSimpleName());
+        return ann;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of nodes cloned from an existing template
+     *
+     * @return the number of cache hits
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of templates built
+     *
+     * @return the number of cache misses
+     */
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Description: Creates a one line summary of the cache hits and misses
+     *
+     * @return the summary
+     */
+    public static String summary() {
+        return "Annotation templates: " + hits.get() + " hits, " + misses.get() + " misses.";
+    }
+
+    /**
+     * Description: Resets the counters, for use at the start of a run
+     */
+    public static void reset() {
+        hits.set(0);
+        misses.set(0);
+    }
+}
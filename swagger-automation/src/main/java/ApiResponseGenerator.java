@@ -0,0 +1,32 @@
+/**
+ * Description: This generator adds swagger @ApiResponse annotations to REST service methods (methods with a @Path
+ * annotation) that do not already have one, using the status codes of the method's enunciate @StatusCodes annotation.
+ * The @StatusCodes annotation is removed once it has been replaced.
+ */
+
+public class ApiResponseGenerator implements AnnotationGenerator {
+
+    private FileBuilder builder; // builds the @ApiResponse annotations
+
+    /**
+     * Description: Default constructor for the ApiResponseGenerator
+     *
+     * @param builder the FileBuilder used to build the @ApiResponse annotations
+     */
+    public ApiResponseGenerator(FileBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    public boolean needsAnnotations(AnnotationTarget target) {
+        AnnotationIndex existing = target.getExistingAnnotations();
+        return existing.has(AnnotationIndex.PATH)
+                && (!existing.has(AnnotationIndex.API_RESPONSE) || existing.has(AnnotationIndex.STATUS_CODES));
+    }
+
+    @Override
+    public void annotateMethod(AnnotationTarget target) {
+        this.builder.putApiResponseAnnotation(target.getMethod(), target.getExistingAnnotations(),
+                target.getCompilationUnit());
+    }
+}
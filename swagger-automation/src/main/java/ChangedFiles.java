@@ -0,0 +1,109 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: This class reads the set of files touched by a change, so that a run only processes those files (and
+ * the DTO files they reach) instead of searching the whole source directory. The changed files are either read from a
+ * list of paths (such as the output of git diff --name-only -z piped to stdin) or taken from a local git repository.
+ */
+
+public class ChangedFiles {
+
+    private ChangedFiles() {
+
+    }
+
+    /**
+     * Description: Reads a list of paths. Paths are separated by NUL characters, as written by git's -z option. If the
+     * input contains no NUL characters, paths are separated by line breaks instead. Relative paths are resolved against
+     * the given directory.
+     *
+     * @param in        the list of paths
+     * @param directory the directory relative paths are resolved against
+     * @return the files listed that exist
+     * @throws IOException if the input cannot be read
+     */
+    public static List<File> readPaths(InputStream in, File directory) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        String content = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        String separator = content.indexOf('\0') >= 0 ? "\0" : "\r?\n";
+
+        List<File> results = new ArrayList<>();
+        for (String path : content.split(separator)) {
+            if (path.trim().isEmpty()) {
+                continue;
+            }
+            File file = new File(path);
+            if (!file.isAbsolute()) {
+                file = new File(directory, path);
+            }
+            if (file.isFile()) {//deleted files have nothing to annotate
+                results.add(file.getAbsoluteFile());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Description: Finds the files changed since the given ref in the git repository containing the directory, using
+     * git diff --name-only -z. Given a single ref, the working tree is compared against it, so uncommitted changes are
+     * included.
+     *
+     * @param directory a directory inside the git repository
+     * @param ref       the ref or range to compare (ex. origin/master, or base...HEAD)
+     * @return the changed files that exist
+     * @throws IOException if git cannot be run or fails
+     */
+    public static List<File> fromGit(File directory, String ref) throws IOException {
+        String topLevel = runGit(directory, "rev-parse", "--show-toplevel").trim();
+        byte[] output = runGit(directory, "diff", "--name-only", "-z", ref, "--").getBytes(StandardCharsets.UTF_8);
+        return readPaths(new ByteArrayInputStream(output), new File(topLevel));
+    }
+
+    /**
+     * Description: Runs a git command in the given directory
+     *
+     * @param directory the directory to run git in
+     * @param args      the git command and its arguments
+     * @return the output of the command
+     * @throws IOException if git cannot be run or exits with an error
+     */
+    private static String runGit(File directory, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        for (String arg : args) {
+            command.add(arg);
+        }
+        Process process = new ProcessBuilder(command).directory(directory)
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();//git errors are shown to the user
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed with exit code " + exitCode);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for git", e);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,246 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: This class keeps the abstract syntax trees of recently parsed files, so that a file parsed by the REST
+ * service search is not parsed again when it turns out to be a DTO file, and so that a watch run does not parse the
+ * DTO files of an edited REST service again. A file is looked up by its path along with its last modified time and
+ * size, so a file that was written since it was parsed (including by this tool) is parsed again. The trees are kept
+ * within an estimated heap budget and the least recently used trees are evicted first. When several threads ask for
+ * the same file at once, one of them parses it and the others wait for its result.
+ */
+
+public class CompilationUnitCache {
+
+    static final long BYTES_PER_SOURCE_BYTE = 40; // estimated heap used by a parsed tree per byte of source
+
+    private long budget; // estimated heap the cached trees may use, in bytes
+    private long weight; // estimated heap used by the cached trees, in bytes
+    private LinkedHashMap<Path, Entry> entries; // absolute path -> cached tree, least recently used first
+    private AtomicLong hits = new AtomicLong(); // lookups answered by a tree parsed earlier or being parsed
+    private AtomicLong misses = new AtomicLong(); // lookups that parsed the file
+    private AtomicLong evictions = new AtomicLong(); // trees evicted to stay within the budget
+
+    /**
+     * Description: A tree of a single version of a file. The result completes once the file has been parsed.
+     */
+    private static class Entry {
+        private long lastModified; // last modified time of the file that was parsed
+        private long size; // size of the file that was parsed
+        private long weight; // estimated heap used by the tree, 0 until it is parsed
+        private CompletableFuture<CompilationUnit> result = new CompletableFuture<>(); // null if the parse failed
+
+        private Entry(long lastModified, long size) {
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Description: Creates a cache that uses a quarter of the maximum heap
+     */
+    public CompilationUnitCache() {
+        this(Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Description: Creates a cache with the given budget
+     *
+     * @param budget the estimated heap the cached trees may use, in bytes (0 to only share parses in progress)
+     */
+    public CompilationUnitCache(long budget) {
+        this.budget = budget;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Description: Retrieves the abstract syntax tree of the file, parsing it with the given parser if the current
+     * version of the file is not cached. The tree returned is shared, so callers that modify it are expected to write
+     * the file afterwards (which changes its last modified time).
+     *
+     * @param file   the file to parse
+     * @param parser the parser of the calling thread
+     * @return the abstract syntax tree of the file, null if the file cannot be parsed
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public CompilationUnit get(File file, JavaParser parser) throws FileNotFoundException {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        long lastModified = file.lastModified();
+        long size = file.length();
+
+        Entry entry;
+        boolean load = false;
+        synchronized (this) {
+            entry = this.entries.get(path);
+            if (entry == null || entry.lastModified != lastModified || entry.size != size) {//not parsed, or changed
+                if (entry != null) {
+                    remove(path);
+                }
+                entry = new Entry(lastModified, size);
+                this.entries.put(path, entry);
+                load = true;
+            }
+        }
+
+        if (!load) {
+            this.hits.incrementAndGet();
+            return await(entry);
+        }
+        this.misses.incrementAndGet();
+        CompilationUnit compUnit;
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.PARSE)) {
+            ParseResult<CompilationUnit> result = parser.parse(file);
+            compUnit = result.isSuccessful() ? result.getResult().orElse(null) : null;
+            RunReport.count(compUnit == null ? "parseFailures" : "filesParsed");
+        } catch (FileNotFoundException | RuntimeException e) {
+            synchronized (this) {
+                if (this.entries.get(path) == entry) {//failures are not cached
+                    this.entries.remove(path);
+                }
+            }
+            entry.result.completeExceptionally(e);//waiting threads see the same failure
+            throw e;
+        }
+        entry.result.complete(compUnit);
+        loaded(path, entry);
+        return compUnit;
+    }
+
+    /**
+     * Description: Waits for a tree that another thread may still be parsing
+     *
+     * @param entry the entry of the tree
+     * @return the tree, null if the file could not be parsed
+     * @throws FileNotFoundException if the file did not exist when it was parsed
+     */
+    private CompilationUnit await(Entry entry) throws FileNotFoundException {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof FileNotFoundException) {
+                throw (FileNotFoundException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Description: Adds the weight of a parsed tree and evicts the least recently used trees until the cache is within
+     * its budget. Trees still being parsed are not evicted.
+     *
+     * @param path  the path of the file that was parsed
+     * @param entry the entry of the tree
+     */
+    private synchronized void loaded(Path path, Entry entry) {
+        if (this.entries.get(path) != entry) {//replaced by a newer version while it was parsed
+            return;
+        }
+        entry.weight = entry.size * BYTES_PER_SOURCE_BYTE;
+        this.weight += entry.weight;
+
+        Iterator<Map.Entry<Path, Entry>> iterator = this.entries.entrySet().iterator();
+        while (this.weight > this.budget && iterator.hasNext()) {
+            Map.Entry<Path, Entry> eldest = iterator.next();
+            if (eldest.getValue().weight == 0 || eldest.getValue() == entry) {//still parsing, or just parsed
+                continue;
+            }
+            this.weight -= eldest.getValue().weight;
+            iterator.remove();
+            this.evictions.incrementAndGet();
+        }
+        if (this.weight > this.budget) {//the tree alone is over the budget
+            remove(path);
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(Path path) {
+        Entry entry = this.entries.remove(path);
+        if (entry != null) {
+            this.weight -= entry.weight;
+        }
+    }
+
+    /**
+     * Description: Checks whether a lookup of the file would be answered without parsing it. The counters are not
+     * changed.
+     *
+     * @param file the file to check
+     * @return true if the file's current version is cached or being parsed by another thread
+     */
+    public synchronized boolean isCached(File file) {
+        Entry entry = this.entries.get(file.toPath().toAbsolutePath().normalize());
+        return entry != null && entry.lastModified == file.lastModified() && entry.size == file.length();
+    }
+
+    /**
+     * Description: Removes the tree of a file that was modified and written. Its cached version can no longer be
+     * looked up (the file's last modified time changed), and once set up with lexical preservation and annotated it
+     * uses far more heap than its estimated weight, so it is released right away instead of waiting to be evicted.
+     *
+     * @param file the file to remove
+     */
+    public synchronized void invalidate(File file) {
+        remove(file.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Description: Removes every cached tree. The counters are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.weight = 0;
+    }
+
+    /**
+     * Description: Standard getter for the number of lookups answered without parsing
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Description: Standard getter for the number of lookups that parsed the file
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Description: Standard getter for the number of trees evicted to stay within the budget
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Description: Creates a one line summary of the cache
+     *
+     * @return the summary
+     */
+    public synchronized String summary() {
+        return "Parse cache: " + this.hits.get() + " hits, " + this.misses.get() + " misses, " + this.evictions.get()
+                + " evictions, " + this.entries.size() + " files cached (~" + this.weight / (1024 * 1024) + " of "
+                + this.budget / (1024 * 1024) + " MB).";
+    }
+}
@@ -0,0 +1,284 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.*;
+
+/**
+ * Description: This class represents every DTO file used by the REST services of a run. Each DTO file is a node and
+ * each DTO object that a DTO file depends on (through its getters, instance variables, method declarations, and import
+ * statements) is an edge. A DTO file that is used by many REST services or other DTO files is only parsed, annotated,
+ * and written once per run, with the DTO files it depends on being annotated before it. In streaming mode annotateAll()
+ * is called after every REST service is added, and only the DTO files added since the last call are annotated.
+ */
+
+public class DTOGraph {
+
+    private FilesToAnnotateFinder finder; // used to find DTO objects and their files
+    private LexicalPreservingPrinter lex;
+    private JavaParser parser;
+    private Map<File, DTONode> nodes; // DTO file -> node, in the order the DTO files were found
+    private List<DTONode> pending; // DTO files added since the last annotateAll(), in the order they were found
+    private int references; // number of times any DTO file was reached from a REST service or another DTO file
+    private int edges; // number of dependencies between DTO files
+    private IncrementalManifest manifest; // used to skip DTO files unchanged since the last run, null if not incremental
+    private int unchangedSkipped; // number of DTO files skipped because they are unchanged since the last run
+    private List<File> annotatedFiles; // DTO files annotated by annotateAll()
+    private Map<File, Set<File>> resourceDependencies; // REST service file -> DTO files present in it
+
+    /**
+     * Description: This class represents a single DTO file in the graph
+     */
+    private static class DTONode {
+        private File file;
+        private CompilationUnit compUnit; // released once the DTO file is annotated
+        private List<DTONode> dependencies = new ArrayList<>(); // DTO files this DTO file depends on
+        private Set<File> dependencyFiles = new LinkedHashSet<>(); // includes DTO files that were not parsed
+        private boolean annotated; // whether an earlier annotateAll() already annotated this DTO file
+
+        private DTONode(File file, CompilationUnit compUnit) {
+            this.file = file;
+            this.compUnit = compUnit;
+        }
+    }
+
+    /**
+     * Description: Default constructor for the DTOGraph
+     *
+     * @param finder the finder used to find the DTO objects present in a file
+     */
+    public DTOGraph(FilesToAnnotateFinder finder, LexicalPreservingPrinter lex) {
+        this.finder = finder;
+        this.lex = lex;
+        this.parser = new JavaParser();
+        this.nodes = new LinkedHashMap<>();
+        this.pending = new ArrayList<>();
+        this.annotatedFiles = new ArrayList<>();
+        this.resourceDependencies = new LinkedHashMap<>();
+    }
+
+    /**
+     * Description: Standard setter for setting the manifest of the last run. DTO files that the manifest records as
+     * unchanged DTO files are not parsed or annotated again.
+     *
+     * @param manifest the manifest of the last run
+     */
+    public void setManifest(IncrementalManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * Description: Adds every DTO file present in the REST service file to the graph, along with every DTO file those
+     * DTO files depend on. DTO files that are already in the graph are not parsed again.
+     *
+     * @param resource the REST service file to add the DTO files of
+     */
+    public void addResource(AbstractSyntaxTree resource) {
+        Set<File> DTOFiles = this.finder.retrieveDTOs(resource.getAbstractSyntaxTree());
+        this.resourceDependencies.put(resource.getFile(), DTOFiles);
+        for (File file : DTOFiles) {
+            this.references++;
+            addDTOFile(file);
+        }
+    }
+
+    /**
+     * Description: Adds the given DTO files and every DTO file they depend on to the graph
+     *
+     * @param files the DTO files to add
+     */
+    public void addDTOFiles(Collection<File> files) {
+        for (File file : files) {
+            this.references++;
+            addDTOFile(file);
+        }
+    }
+
+    /**
+     * Description: Adds a DTO file and every DTO file it depends on to the graph. The DTO files are processed with a
+     * worklist instead of recursion since chains of DTO files can be deep.
+     *
+     * @param file the DTO file to add
+     * @return the node of the DTO file, null if the file could not be parsed
+     */
+    private DTONode addDTOFile(File file) {
+        if (this.nodes.containsKey(file)) {//already parsed
+            return this.nodes.get(file);
+        }
+        DTONode added = parse(file);
+        Deque<DTONode> toVisit = new ArrayDeque<>();
+        if (added != null) {
+            toVisit.push(added);
+        }
+
+        while (!toVisit.isEmpty()) {
+            DTONode node = toVisit.pop();
+            Set<File> dependencyFiles = new LinkedHashSet<>();
+            for (String DTO : this.finder.getDTOsReferencedByDTO(node.compUnit)) {//converting the DTO names into files
+                this.finder.classNametoFile(DTO, node.compUnit, dependencyFiles);
+            }
+            for (File dependencyFile : dependencyFiles) {
+                if (dependencyFile.equals(node.file)) {
+                    continue;
+                }
+                this.references++;
+                node.dependencyFiles.add(dependencyFile);
+                DTONode dependency = this.nodes.get(dependencyFile);
+                if (dependency == null && !this.nodes.containsKey(dependencyFile)) {//a DTO file not seen before
+                    dependency = parse(dependencyFile);
+                    if (dependency != null) {
+                        toVisit.push(dependency);
+                    }
+                }
+                if (dependency != null) {
+                    node.dependencies.add(dependency);
+                    this.edges++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Description: Parses a DTO file and adds its node to the graph. Files that cannot be parsed are recorded so that
+     * they are not parsed again.
+     *
+     * @param file the DTO file to parse
+     * @return the node of the DTO file, null if the file could not be parsed
+     */
+    private DTONode parse(File file) {
+        DTONode node = null;
+        if (this.manifest != null && this.manifest.getKind(file) == IncrementalManifest.Kind.DTO
+                && this.manifest.isUnchanged(file)) {//annotated by an earlier run and not changed since
+            this.unchangedSkipped++;
+            this.nodes.put(file, null);
+            return null;
+        }
+        try {
+            CompilationUnit compUnit = this.finder.getParseCache().get(file, this.parser);
+            if (compUnit != null) {
+                node = new DTONode(file, compUnit);
+                this.pending.add(node);
+            }
+        } catch (FileNotFoundException e) {
+            System.out.println("DTO file was not found: " + file);
+        }
+        this.nodes.put(file, node);
+        return node;
+    }
+
+    /**
+     * Description: Annotates and writes every DTO file added to the graph since the last call exactly once. A DTO file
+     * is annotated after the DTO files it depends on. DTO files that depend on each other are annotated in the order
+     * they were found. DTO files annotated by an earlier call are not annotated again.
+     *
+     * @return the number of DTO files annotated
+     */
+    public int annotateAll() {
+        int annotated = 0;
+        Set<DTONode> visited = new HashSet<>();
+        for (DTONode root : this.pending) {
+            if (root.annotated || visited.contains(root)) {
+                continue;
+            }
+            //depth-first post-order traversal using a stack of (node, index of the next dependency to visit)
+            Deque<DTONode> stack = new ArrayDeque<>();
+            Deque<Integer> nextDependency = new ArrayDeque<>();
+            visited.add(root);
+            stack.push(root);
+            nextDependency.push(0);
+            while (!stack.isEmpty()) {
+                DTONode node = stack.peek();
+                int index = nextDependency.pop();
+                if (index < node.dependencies.size()) {//visiting the next dependency first
+                    nextDependency.push(index + 1);
+                    DTONode dependency = node.dependencies.get(index);
+                    if (!dependency.annotated && visited.add(dependency)) {
+                        stack.push(dependency);
+                        nextDependency.push(0);
+                    }
+                } else {//every dependency has been annotated, so annotate this DTO file
+                    stack.pop();
+                    this.finder.annotateDTOFile(new AbstractSyntaxTree(node.file, node.compUnit), this.lex);
+                    node.compUnit = null;//the abstract syntax tree is no longer needed
+                    node.annotated = true;
+                    this.annotatedFiles.add(node.file);
+                    annotated++;
+                }
+            }
+        }
+        this.pending.clear();
+        return annotated;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the DTO files annotated by annotateAll()
+     *
+     * @return the DTO files annotated
+     */
+    public List<File> getAnnotatedFiles() {
+        return this.annotatedFiles;
+    }
+
+    /**
+     * Description: Returns the files that each REST service and DTO file in the graph depends on. DTO files that were
+     * not parsed (because they are unchanged since the last run) are not keys since their dependencies were not found.
+     *
+     * @return map of REST service or DTO file -> the DTO files it depends on
+     */
+    public Map<File, Set<File>> getDependencies() {
+        Map<File, Set<File>> results = new LinkedHashMap<>(this.resourceDependencies);
+        for (Map.Entry<File, DTONode> entry : this.nodes.entrySet()) {
+            if (entry.getValue() != null) {
+                results.put(entry.getKey(), entry.getValue().dependencyFiles);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of DTO files skipped because they are unchanged since the
+     * last run
+     *
+     * @return the number of unchanged DTO files skipped
+     */
+    public int getUnchangedSkipped() {
+        return this.unchangedSkipped;
+    }
+
+    /**
+     * Description: Returns the number of DTO files in the graph
+     *
+     * @return the number of DTO files
+     */
+    public int size() {
+        int size = 0;
+        for (DTONode node : this.nodes.values()) {
+            if (node != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of dependencies between DTO files
+     *
+     * @return the number of dependencies between DTO files
+     */
+    public int getEdgeCount() {
+        return this.edges;
+    }
+
+    /**
+     * Description: Returns the number of times a DTO file was reached again after it had already been added to the
+     * graph. Each of these would have been another parse, annotation, and write of the same DTO file.
+     *
+     * @return the number of duplicate visits avoided
+     */
+    public int getDuplicateVisitsAvoided() {
+        return Math.max(0, this.references - this.nodes.size());
+    }
+}
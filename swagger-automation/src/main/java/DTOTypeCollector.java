@@ -0,0 +1,80 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Description: This class collects the names of the DTO objects referenced in a part of an abstract syntax tree. It
+ * visits the ClassOrInterfaceType nodes (including generic type arguments such as List&lt;ExampleDTO&gt;) and the
+ * names used as the scope of static calls (such as ExampleDTO.builder()), so nothing has to be printed to a string to
+ * find them.
+ */
+
+public class DTOTypeCollector extends VoidVisitorAdapter<Set<String>> {
+
+    static final Pattern DTO_NAME = Pattern.compile("[A-Z][A-Za-z]*DTO"); // the name of a DTO object
+
+    private static final DTOTypeCollector INSTANCE = new DTOTypeCollector(); // the visitor holds no state
+
+    /**
+     * Description: Collects the names of the DTO objects referenced in the given nodes and their children
+     *
+     * @param nodes the nodes to search
+     * @return set of the names of the DTO objects referenced
+     */
+    public static Set<String> collect(Node... nodes) {
+        Set<String> results = new HashSet<>();
+        for (Node node : nodes) {
+            node.accept(INSTANCE, results);
+        }
+        return results;
+    }
+
+    /**
+     * Description: Collects the names of the DTO objects referenced in a method declaration: its return type, its
+     * parameter types, its type parameters, and the exceptions it throws. The method body is not searched.
+     *
+     * @param method the method declaration to search
+     * @return set of the names of the DTO objects referenced in the method declaration
+     */
+    public static Set<String> collectFromDeclaration(MethodDeclaration method) {
+        Set<String> results = new HashSet<>();
+        method.getType().accept(INSTANCE, results);
+        method.getParameters().forEach(parameter -> parameter.getType().accept(INSTANCE, results));
+        method.getTypeParameters().forEach(typeParameter -> typeParameter.accept(INSTANCE, results));
+        method.getThrownExceptions().forEach(exception -> exception.accept(INSTANCE, results));
+        return results;
+    }
+
+    /**
+     * Description: Checks whether the given simple name is the name of a DTO object
+     *
+     * @param name the simple name to check
+     * @return true if the name is the name of a DTO object
+     */
+    static boolean isDTOName(String name) {
+        return name.endsWith("DTO") && DTO_NAME.matcher(name).matches();
+    }
+
+    @Override
+    public void visit(ClassOrInterfaceType type, Set<String> results) {
+        String name = type.getNameAsString();
+        if (isDTOName(name)) {
+            results.add(name);
+        }
+        super.visit(type, results);//visiting the scope and the generic type arguments
+    }
+
+    @Override
+    public void visit(NameExpr name, Set<String> results) {
+        String identifier = name.getNameAsString();
+        if (isDTOName(identifier)) {//a DTO object used as the scope of a static call or field access
+            results.add(identifier);
+        }
+    }
+}
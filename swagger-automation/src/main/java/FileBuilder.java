@@ -19,12 +19,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import javax.ws.rs.core.Context;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -39,6 +35,8 @@ public class FileBuilder {
     private Set<AbstractSyntaxTree> RESTServicesFiles;//RESTServicesFiles to be annotated
     private List<AbstractSyntaxTree> DTOFiles; //DTO files to be annotated
     private List<String> annotations;//list of annotations to add to RESTServicesFiles
+    private SourceFileWriter writer;//writes the annotated RESTServicesFiles
+    private AnnotationEngine engine;//adds the annotations, built from the list of annotations on first use
 
     /**
      * Description: Defualt contructor for FileBuilder
@@ -49,6 +47,16 @@ public class FileBuilder {
     public FileBuilder(Set<AbstractSyntaxTree> RESTServicesFiles, ArrayList<String> annotations) {
         this.RESTServicesFiles = RESTServicesFiles;
         this.annotations = annotations;
+        this.writer = new SourceFileWriter();
+    }
+
+    /**
+     * Description: Standard setter for setting the writer used to write annotated RESTServicesFiles
+     *
+     * @param writer the writer to use
+     */
+    public void setWriter(SourceFileWriter writer) {
+        this.writer = writer;
     }
 
     /**
@@ -103,63 +111,31 @@ public class FileBuilder {
      */
     public void setAnnotations(ArrayList<String> annotations) {
         this.annotations = annotations;
+        this.engine = null;
     }
 
     /**
-     * Description: Creates a hashmap of all methods in the file (as MethodDeclaration nodes) to the JavaDoc comments
-     * that they belong to. Ensures that any TODO comments are not associated with methods in the return hash since it
-     * does not provide useful information when adding swagger annotations
-     * Ex) MethodDeclaration -> JavaDoc comment
+     * Description: Retrieves the engine used to annotate RESTServicesFiles. The engine is built on first use with a
+     * generator for each of the annotations to add (@Operation, @Parameter, and @ApiResponse, in that order). More
+     * generators can be registered with the engine before the files are annotated.
      *
-     * @param nodes nodes to create hashmap from
-     * @return the hashmap of methods to comments
+     * @return the engine used to annotate RESTServicesFiles
      */
-    public Map<MethodDeclaration, Node> createNodeToCommentsMap(List<Node> nodes) {
-
-        Map<MethodDeclaration, Node> results = new HashMap<>();
-        for (Node node : nodes) {//iterating through all the nodes in the file, searching for the method declarations
-            List<MethodDeclaration> methods = getMethodDeclarations(node);
-            for (MethodDeclaration method : methods) {
-                //^iterating through all the methods in the file looking for the comments
-                Optional<Comment> opt = method.getComment(); // each method has a single comment
-                if (opt.isPresent()) {
-                    Comment comment = opt.get();//retrieving the comment
-                    String content = comment.getContent();
-                    if (content.toUpperCase().startsWith("TODO")) {//comment is a TODO
-                        results.put(method, null);
-                    } else {//comment is not a TODO, so place comment with its corresponding method
-                        results.put(method, comment);
-                    }
-                } else {//this method has no comment associated with it
-                    results.put(method, null);
-                }
+    public synchronized AnnotationEngine getEngine() {
+        if (this.engine == null) {
+            AnnotationEngine newEngine = new AnnotationEngine();
+            if (this.annotations.contains("@Operation")) {
+                newEngine.register(new OperationGenerator(this));
             }
-
-        }
-        return results;
-    }
-
-    /**
-     * Description: Converts the list of AnnotationExpr to a list of annotation names of type String. For use by the
-     * checkAnnotations() method
-     *
-     * @param annotations annotations to convert to annotation names
-     * @return list of annotation names
-     */
-    public List<String> toAnnotationNameList(NodeList<AnnotationExpr> annotations) {
-        //converts the list of AnnotationExpr to a list of annotation names of type String
-        // for use by the checkAnnotations() method
-
-        List<String> results = new ArrayList<>();
-
-        for (AnnotationExpr annotation : annotations) {
-            String ann = annotation.toString();
-            ann = ann.split("\\(")[0];//retrieving the annotation name (everything before the "()")
-            results.add(ann);
+            if (this.annotations.contains("@Parameter")) {
+                newEngine.register(new ParameterGenerator());
+            }
+            if (this.annotations.contains("@ApiResponse")) {
+                newEngine.register(new ApiResponseGenerator(this));
+            }
+            this.engine = newEngine;
         }
-
-        //need to trim the annotationNames
-        return results;
+        return this.engine;
     }
 
     /**
@@ -186,81 +162,88 @@ public class FileBuilder {
      */
     public void checkAndWriteAnnotations(LexicalPreservingPrinter lex) {
         for (AbstractSyntaxTree file : this.RESTServicesFiles) {//iterating thru all RESTServicesFiles to annotate
-            CompilationUnit compUnit = file.getAbstractSyntaxTree();
-            List<Node> nodes = compUnit.getChildNodes();
-            List<Node> annotationNodes = new ArrayList<>();
-            Map<MethodDeclaration, Node> nodesToWrite = null;
-
-            for (Node node : nodes) {
-                //^finding all nodes that support annotations, then creating a map of methods to the comments associated
-                // with them. nodesToWrite contains all relevant methods and comments as key-value pairs.
-                if (NodeWithAnnotations.class.isAssignableFrom(node.getClass())) {
-                    annotationNodes.add(node);
-                    nodesToWrite = createNodeToCommentsMap(nodes);
-                    System.out.println(nodesToWrite.toString());
-                }
-            }
+            annotateFile(file, lex);
+        }//end iterating thru RESTServicesFiles
+    }
 
-            for (Entry<MethodDeclaration, Node> entry : nodesToWrite.entrySet()) {
-                //^iterating through map of methods and comments to add swagger annotations to
-                MethodDeclaration method = entry.getKey();
-                Node comments = entry.getValue();
-                NodeList<AnnotationExpr> annotations = new NodeList<>(method.getAnnotations());
-                List<AnnotationExpr> parameterAnnotations = getParameterAnnotations(method);
-                annotations.addAll(parameterAnnotations);
-                List<String> annotationNames = toAnnotationNameList(annotations);
-                //^List of annotations that currently exist in the current method
-
-                if (!annotationNames.containsAll(this.annotations) && annotationNames.contains("@Path")) {//adding swagger annotations if they do not already exist
-                    // and current method has a @Path annotation
-                    putOperationAnnotation(method, comments, annotationNames);
-                    putParameterAnnotation(method, comments, annotationNames, compUnit.getImports(), compUnit);
-                    putApiResponseAnnotation(method, annotationNames, compUnit);
-                }
-            }//end adding swagger annotations to file
+    /**
+     * Description: Annotates and writes the RESTServicesFiles using the given number of worker threads. Every file is
+     * annotated independently, so the files written are the same as those written by checkAndWriteAnnotations(lex).
+     *
+     * @param threads the number of worker threads to annotate files on
+     * @throws IOException if a worker fails
+     */
+    public void checkAndWriteAnnotations(LexicalPreservingPrinter lex, int threads) throws IOException {
+        WorkerPool.map(this.RESTServicesFiles, threads, file -> {
+            annotateFile(file, lex);
+            return file;
+        });
+    }
+
+    /**
+     * Description: Adds the missing swagger annotations to a single REST service file and writes the annotated file.
+     * The file is analyzed first, lexical preservation is only set up (and the file only written) if at least one
+     * method is missing annotations.
+     *
+     * @param file the REST service file to annotate
+     */
+    public void annotateFile(AbstractSyntaxTree file, LexicalPreservingPrinter lex) {
+        CompilationUnit compUnit = file.getAbstractSyntaxTree();
+        AnnotateFileEvent event = FlightRecorderEvents.annotateFile();//null if Flight Recorder is not available
+        int annotationsBefore = event != null && event.isEnabled() ? AnnotateFileEvent.countSwaggerAnnotations(compUnit) : 0;
+        AnnotationEngine engine = getEngine();
+        List<AnnotationTarget> methodsToAnnotate = engine.findTargets(compUnit);
+        //^every method in the file, including methods of nested classes, that is missing swagger annotations
+
+        boolean modified = !methodsToAnnotate.isEmpty();
+        if (modified) {
+            LexicalPreservation.setup(lex, compUnit);//preparing the file to be used in the lex print method
+            engine.annotate(methodsToAnnotate);//adding swagger annotations
+        } else {//nothing to add, so the file is left as it is
+            LexicalPreservation.skip(compUnit);
+        }
+        if (event != null) {
+            event.end();//the time taken to write the file is recorded by its WriteFileEvent
+        }
+        if (event != null && event.shouldCommit()) {
+            event.commit(file.getFile().getPath(), AnnotateFileEvent.RESOURCE, compUnit, methodsToAnnotate.size(),
+                    annotationsBefore);
+        }
+        if (modified) {
             createAndWriteNewFiles(file, compUnit, lex); //writing changes to new files
-        }//end iterating thru RESTServicesFiles
+        }
     }
 
     /**
      * Description: Creates, writes, and saves a newly annotated file. The new file is saved in the same location as the
-     * original file that is replacing.
+     * original file that is replacing. The file is not written if its content did not change.
      *
      * @param file     the file to replace with the newly annotated file
      * @param compUnit the abstract syntax tree including the newly added annotations to write to the new file
      */
     public void createAndWriteNewFiles(AbstractSyntaxTree file, CompilationUnit compUnit, LexicalPreservingPrinter lex) {
 
+        WriteFileEvent event = FlightRecorderEvents.writeFile();//null if Flight Recorder is not available
+        String allContent;
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.PRINT)) {
+            ImportManager.apply(compUnit);//adding and removing the queued import statements
+            allContent = lex.print(compUnit);
+        }
 
-        String allContent = lex.print(compUnit);
-      /*  String content = compUnit.toString();
-        List<Comment> orphanComments = compUnit.getOrphanComments();
-        String[] contentList = content.split("\n");
-        String allContent = writeContent(contentList, orphanComments);*/
-
-      /*  boolean t = new File("/Users/kpagkatipunan/Desktop/swagger-automation/src/main/java/newFiles").mkdirs();
-        File newFile = new File("/Users/kpagkatipunan/Desktop/swagger-automation/src/main/java/newFiles/" + fileName);
-*/
-        //^The above two commented lines are for testing purposes
-
-        //TODO: THIS IS THE LINE YOUR CHANGED TO ACTUALLY PLACE CHANGES IN PLS FILES
-        String path = file.getFile().getPath();
-
+        boolean written = false;//whether the file's content changed
         try {
-
-            Files.delete(Paths.get(path));
-            if (Files.exists(Paths.get(path))) {
-                System.out.println("Failure file still exists");
-            }
-            File newFile = new File(path); //creating a new file in the same directory as the file to replace
-            FileWriter fileWriter = new FileWriter(newFile);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
-            bufferedWriter.write(allContent);
-            bufferedWriter.close();
+            written = this.writer.write(file.getFile(), allContent);//only written if the content changed
         } catch (IOException e) {
             System.out.println("New file was not created successfully.");
             e.printStackTrace();
         }
+        if (event != null && event.shouldCommit()) {
+            event.path = file.getFile().getPath();
+            event.size = allContent.getBytes(StandardCharsets.UTF_8).length;
+            event.nodes = compUnit.findAll(Node.class).size();
+            event.written = written;
+            event.commit();
+        }
     }
 
     /**
@@ -358,13 +341,13 @@ public class FileBuilder {
      * @param comments the comment to add to the @Operation annotation
      * @return the method with the @Operation annotation added
      */
-    public void putOperationAnnotation(NodeWithAnnotations node, Node comments, List<String> existingAnnotations) {
-        if (!existingAnnotations.contains("@Operation")) { //method does not contain an @Operation annotation, so add it
+    public void putOperationAnnotation(NodeWithAnnotations node, Node comments, AnnotationIndex existingAnnotations) {
+        if (!existingAnnotations.has(AnnotationIndex.OPERATION)) { //method does not contain an @Operation annotation, so add it
             if (comments != null) {//if there is a javaDoc Comment that exists for this method
                 Comment comment = (Comment) comments;
                 String description = getDescription(comment.getContent());
                 description = "\"" + description + "\"";
-                NormalAnnotationExpr ann = node.addAndGetAnnotation(Operation.class);
+                NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(node, Operation.class);
                 ann.addPair("description", description);
                 addSummaryDescription((MethodDeclaration) node, ann);
             } else {//no java doc comment associated with method
@@ -391,27 +374,6 @@ public class FileBuilder {
         return results;
     }
 
-    /**
-     * Description: Retrieves all parameters declared by the target method declaration.
-     *
-     * @param method the target method declaration
-     * @return List of parameters defined by the target method declaration
-     */
-    public List<com.github.javaparser.ast.body.Parameter> getParametersFromMethodDeclaration(MethodDeclaration method) {
-
-        List<com.github.javaparser.ast.body.Parameter> parameters = new ArrayList<>();
-
-        for (Node childNode : method.getChildNodes()) {
-            //populating parameters list with all the parameters in the method declaration
-            if (com.github.javaparser.ast.body.Parameter.class.isAssignableFrom(childNode.getClass())) {
-                //childNode is a method parameter so add it to the parameters list
-                parameters.add((com.github.javaparser.ast.body.Parameter) childNode);
-            }
-        }//end populating list with all parameters
-
-        return parameters;
-    }
-
     /**
      * Description: Places a TODO comment describing which swagger annotations to add manually
      *
@@ -421,121 +383,30 @@ public class FileBuilder {
     public void putTodoComment(MethodDeclaration method, String toAddManually) {
         if (toAddManually.equals("@Operation")) {
             String summary = method.getNameAsString();
-            NormalAnnotationExpr ann = method.addAndGetAnnotation(Operation.class);
+            NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(method, Operation.class);
             ann.addPair("description", "\"TODO: Add Description here.\"");
             ann.addPair("summary", "\"" + summary + "\"");
+            RunReport.todoAdded("Operation");
         } else if (toAddManually.equals("@Parameter")) {
-            List<com.github.javaparser.ast.body.Parameter> parameters = getParametersFromMethodDeclaration(method);
-            for (com.github.javaparser.ast.body.Parameter parameter : parameters) {//iterating thru the list of parameters
+            for (com.github.javaparser.ast.body.Parameter parameter : method.getParameters()) {//iterating thru the list of parameters
                 Optional<AnnotationExpr> opt = parameter.getAnnotationByClass(Context.class);
                 if (!opt.isPresent()) {//no @Context annotation exists
-                    NormalAnnotationExpr ann = parameter.addAndGetAnnotation(Parameter.class);
+                    NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(parameter, Parameter.class);
                     ann.addPair("description", "\"TODO: Add description and @Schema annotation here.\"");
+                    RunReport.todoAdded("Parameter");
                 }
             }
         } else if (toAddManually.equals("@ApiResponse")) {
-            NormalAnnotationExpr ann = method.addAndGetAnnotation(ApiResponse.class);
+            NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(method, ApiResponse.class);
             ann.addPair("description", "\"TODO: Add status codes and descriptions here.\"");
+            RunReport.todoAdded("ApiResponse");
         } else if (toAddManually.equals("Status codes to @ApiResponse")) {
-            NormalAnnotationExpr ann = method.addAndGetAnnotation(ApiResponse.class);
+            NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(method, ApiResponse.class);
             ann.addPair("description", "\"TODO: Add status codes and descriptions here.\"");
+            RunReport.todoAdded("ApiResponse");
         }
     }
 
-    /**
-     * Description: Places a swagger @Parameter annotation to the target method and automatically adds the required
-     * import statement. Only does this if the @Parameter annotation does not already exist, otherwise does nothing.
-     *
-     * @param node     the method to add the @Parameter annotation to
-     * @param comments the comment to add to the @Operation annotation
-     * @param imports  the import statements that currently exist in the file (for use by the putSchemaAnnotation method)
-     * @param compUnit the compilation unit or abstract syntax tree representing the current file being annotated
-     * @return the method with the @Parameter annotation added
-     */
-    public void putParameterAnnotation(NodeWithAnnotations node, Node comments, List<String> existingAnnotations, NodeList<ImportDeclaration> imports, CompilationUnit compUnit) {
-        //find all parameters in the javaDoc comment, then check if the number of parameter annotations
-        //added matches the number of parameters in the method declaration, if not add them with an @Parameter
-        MethodDeclaration method = (MethodDeclaration) node;
-        List<com.github.javaparser.ast.body.Parameter> parameters = getParametersFromMethodDeclaration(method);
-
-        if (!existingAnnotations.contains("@Parameter")) { //method does not contain an @Parameter annotation, so add it
-            List<String> paramDescriptions = new ArrayList<>();//List of the parameter descriptions
-
-            JavadocComment javadocComment = (JavadocComment) comments;
-            Javadoc content = null;
-            if (javadocComment != null) {//a JavaDoc comment does exist
-                content = javadocComment.parse();//use this to add info to parameter annotation
-                List<JavadocBlockTag> tags = content.getBlockTags();
-                for (JavadocBlockTag tag : tags) {//getting all the parameter descriptions
-                    if (tag.getType().toString().equalsIgnoreCase("param")) {//getting all param descriptions
-                        paramDescriptions.add(tag.getContent().toText());
-                    }
-                }
-
-                MethodDeclaration nodeToWrite = (MethodDeclaration) node;
-                List<String> paramTypes = getParameterTypes(nodeToWrite);
-
-                Map<com.github.javaparser.ast.body.Parameter, String> parameterDescriptionsAndTypes = new HashMap<>();
-                for (int i = 0; i < paramTypes.size(); i++) {//populating map of parameter descriptions to their types
-
-                    String description = "";
-
-                    if (i <= paramDescriptions.size() - 1) {//ensuring that i is in bounds of the paramDescriptions array
-                        description = paramDescriptions.get(i);
-                    } else {
-                        description = "TODO: Add parameter description";
-                    }
-
-                    parameterDescriptionsAndTypes.put(parameters.get(i), description);
-                }
-
-                Collections.reverse(parameters);//reversing the order of the list to ensure that the correct @Parameter
-                //annotation gets added to its corresponding parameter
-                for (int i = 0; i < parameters.size(); i++) {//adding parameter annotations
-                    com.github.javaparser.ast.body.Parameter parameter = parameters.get(i);
-                    Optional<AnnotationExpr> opt = parameter.getAnnotationByClass(Context.class);
-                    if (!opt.isPresent()) {//no @Context annotation exists
-                        String description = parameterDescriptionsAndTypes.get(parameter);
-
-                        description = description.replace("\n", "");
-                        description = description.replace("\r", "");
-                        description = description.replace("  ", " ");
-                        description = description.replace("\"", "\\\"");
-                        description = "\"" + description + "\"";
-                        String type = parameter.getTypeAsString();
-                        NormalAnnotationExpr ann = parameter.addAndGetAnnotation(Parameter.class);
-                        ann.addPair("description", description);
-                        String schemaAnnotation = putSchemaAnnotation(type);
-                        ann.addPair("schema", schemaAnnotation);
-                        if (!imports.contains(Schema.class)) {
-                            //the file does not contain the import statement for @Schema annotations, so add it
-                            compUnit.addImport(Schema.class);
-                        }
-                    }//end @Context check
-                }//end for loop
-
-            } else {//javaDoc Comment does not exist so add Todo Comment
-
-                //TODO: Add functionality if no JavaDoc comment, then find parameters in method declaration and add
-                //Todo comment to add parameter description
-                putTodoComment(method, "@Parameter");
-            }
-        }//end check for existing @Parameter annotation
-    }
-
-    /**
-     * Description: Creates a string representing the @Schema annotation to be added into the @Parameter annotation.
-     * This is for use by the putParameterAnnotation() method.
-     *
-     * @param type The type to add to the @Schema annotation
-     * @return a string representing the @schema annotation with data to add to the @Parameter annotation
-     */
-    public String putSchemaAnnotation(String type) {
-
-        String results = "@Schema(type = " + "\"" + type + "\"" + ")";
-        return results;
-    }
-
     /**
      * Description: Places a swagger @ApiResponse annotation to the target method and automatically adds the required
      * import statement. Performs this action if the @ApiResponse annotation does not already exist, otherwise
@@ -543,13 +414,13 @@ public class FileBuilder {
      * If so, then only the @StatusCodes annotations is removed from the file. If not, then nothing happens.
      *
      * @param node                the target method to annotate
-     * @param existingAnnotations list of existing annotations in the target method
+     * @param existingAnnotations index of the existing annotations in the target method
      */
-    public void putApiResponseAnnotation(Node node, List<String> existingAnnotations, CompilationUnit compUnit) {
+    public void putApiResponseAnnotation(Node node, AnnotationIndex existingAnnotations, CompilationUnit compUnit) {
         NodeWithAnnotations annotatedNode = (NodeWithAnnotations) node;
         NodeList<AnnotationExpr> annotations = annotatedNode.getAnnotations();
 
-        if (!existingAnnotations.contains("@ApiResponse")) {
+        if (!existingAnnotations.has(AnnotationIndex.API_RESPONSE)) {
             //method does not contain an @ApiOperation annotation, so add it
             List<StatusCodeDescriptionPair> statusCodes = new ArrayList<>();
 
@@ -571,7 +442,7 @@ public class FileBuilder {
                     code = "\"" + code + "\"";
                     description = "\"" + description + "\"";
                     NodeWithAnnotations nodeToWrite = (NodeWithAnnotations) node;
-                    NormalAnnotationExpr ann = nodeToWrite.addAndGetAnnotation(ApiResponse.class);
+                    NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(nodeToWrite, ApiResponse.class);
                     ann.addPair("responseCode", code);
                     ann.addPair("description", description);
                 }
@@ -579,7 +450,7 @@ public class FileBuilder {
                 //Removing the @StatusCode and @ResponseCode annotations and both their import statements
                 removeStatusCodeAnnotations(annotations, compUnit);
             }
-        } else if (existingAnnotations.contains("@ApiResponse") && existingAnnotations.contains("@StatusCodes")) {
+        } else if (existingAnnotations.hasAll(AnnotationIndex.API_RESPONSE | AnnotationIndex.STATUS_CODES)) {
             //^method contains BOTH @ApiResponse and @StatusCodes annotations, so remove the @StatusCodes only
             removeStatusCodeAnnotations(annotations, compUnit);
         }
@@ -587,7 +458,7 @@ public class FileBuilder {
 
     /**
      * Description: Removes the enunciate @StatusCodes annotation along with the @ResponseCode annotation nested inside
-     * of it. Also gets rid of the corresponding import statements in the target file.
+     * of it. Also gets rid of the corresponding import statements in the target file once no other method uses them.
      *
      * @param annotations The list of annotations that currently exist in the method
      * @param compUnit    The file to remove the annotations from (represented as an abstract syntax tree)
@@ -603,27 +474,10 @@ public class FileBuilder {
 
         annotations.remove(annotationToRemove);
 
-        NodeList<ImportDeclaration> imports = compUnit.getImports();
-
-        ImportDeclaration statusCodeImport = null;
-        ImportDeclaration responseCodeImport = null;
-        for (ImportDeclaration importDeclaration : imports) {
-            //iterating thru import statements to remove the status codes import statement
-            if (importDeclaration.getName().asString().equals(("com.webcohesion.enunciate.metadata.rs.StatusCodes"))) {
-                //removing StatusCodes import statement
-                statusCodeImport = importDeclaration;
-
-            } else if (importDeclaration.getName().asString().equals(("com.webcohesion.enunciate.metadata.rs.ResponseCode"))) {
-                //removing ResponseCode import statement
-                responseCodeImport = importDeclaration;
-            }
-
-            if (statusCodeImport != null && responseCodeImport != null) {//both imports to remove were found
-                break;
-            }
-        }//end removing status code import statement
-        imports.remove(statusCodeImport);
-        imports.remove(responseCodeImport);
+        ImportManager imports = ImportManager.of(compUnit);
+        //^the import statements are removed when the file is written, if no other method still uses them
+        imports.removeIfUnused("com.webcohesion.enunciate.metadata.rs.StatusCodes");
+        imports.removeIfUnused("com.webcohesion.enunciate.metadata.rs.ResponseCode");
     }
 
     /**
@@ -722,21 +576,4 @@ public class FileBuilder {
             return codeDescriptionPair;
         }
     }
-
-    /**
-     * Description: Iterates through the child nodes of the target node, finding all the method declarations inside
-     *
-     * @param node the node to search for method declarations
-     * @return a list of method declarations
-     */
-    public List<MethodDeclaration> getMethodDeclarations(Node node) {
-        List<MethodDeclaration> methods = new ArrayList<>();
-        List<Node> children = node.getChildNodes();
-        for (Node currNode : children) {
-            if (MethodDeclaration.class.isAssignableFrom(currNode.getClass())) {//currNode is a MethodDeclaration
-                methods.add((MethodDeclaration) currNode);
-            }
-        }
-        return methods;
-    }
 }
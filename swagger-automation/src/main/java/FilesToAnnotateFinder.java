@@ -18,11 +18,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import org.apache.commons.io.FilenameUtils;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 /**
@@ -33,58 +32,263 @@ import java.util.regex.Pattern;
 
 public class FilesToAnnotateFinder {
 
+    static final String PLS_DIRECTORY = "/Users/kpagkatipunan/Desktop/newPLSCode"; // directory searched for DTO files
+
     private List<File> files; // the files to look thru to find RESTful services or DTO files
     private Set<AbstractSyntaxTree> RESTServices; // REST service files to add annotations to
+    private Map<String, SourceIndex> sourceIndexes; // directory path -> index of the java files in that directory
+    private ResourcePrefilter prefilter; // rules out files that cannot be REST services before they are parsed
+    private SourceFileWriter writer; // writes the annotated DTO files
+    private AnnotationEngine DTOEngine; // annotates the getter methods of DTO files
+    private CompilationUnitCache parseCache; // parsed files shared by the REST service search and the DTO passes
+    private TypeResolver typeResolver; // finds the file declaring a class name through a file's package and imports
 
     /**
-     * Description: Default constructor for the FilesToAnnotate Finder
+     * Description: Default constructor for the FilesToAnnotate Finder. Class names are not resolved to files until a
+     * type resolver for the searched directories is set with setTypeResolver().
      *
      * @param files the files to search for files annotate
      */
     public FilesToAnnotateFinder(ArrayList<File> files) {
         this.files = files;
-        this.RESTServices = new HashSet<>();
+        this.RESTServices = new LinkedHashSet<>();
+        this.sourceIndexes = new HashMap<>();
+        this.writer = new SourceFileWriter();
+        this.DTOEngine = new AnnotationEngine().register(new SchemaGetterGenerator(this));
+        this.parseCache = new CompilationUnitCache();
+        this.typeResolver = new TypeResolver(this, Collections.emptyList());//no source directories configured yet
     }//default constructor
 
+    /**
+     * Description: Standard setter for setting the writer used to write annotated DTO files
+     *
+     * @param writer the writer to use
+     */
+    public void setWriter(SourceFileWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Description: Standard setter for setting the cache of parsed files
+     *
+     * @param parseCache the cache to use
+     */
+    public void setParseCache(CompilationUnitCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the cache of parsed files, which is shared with the DTO graph
+     *
+     * @return the cache of parsed files
+     */
+    public CompilationUnitCache getParseCache() {
+        return this.parseCache;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the resolver used to find the files of DTO objects
+     *
+     * @return the type resolver
+     */
+    public TypeResolver getTypeResolver() {
+        return this.typeResolver;
+    }
+
+    /**
+     * Description: Standard setter for setting the resolver used to find the files of DTO objects
+     *
+     * @param typeResolver the type resolver to use
+     */
+    public void setTypeResolver(TypeResolver typeResolver) {
+        this.typeResolver = typeResolver;
+    }
+
     /**
      * Description: Finds all files that are REST services. This method will search for the @PATH() annotation in the
      * file. If @PATH() is present, then the file is determined to be a REST service file. Otherwise, it is ignored.
+     * Files are first checked by the ResourcePrefilter so that only files that could be REST services are parsed.
      *
      * @throws IOException
      */
     public void findRESTServices(LexicalPreservingPrinter lex) throws IOException {
-        JavaParser parser = new JavaParser();
+        findRESTServices(lex, 1);
+    }
 
+    /**
+     * Description: Finds all files that are REST services using the given number of worker threads. Each worker
+     * parses with its own JavaParser. The REST services found are the same as those found by a sequential search, and
+     * are kept in the same order (the order of the searched files), so runs on any number of threads write the same
+     * files.
+     *
+     * @param threads the number of worker threads to parse files on
+     * @throws IOException
+     */
+    public void findRESTServices(LexicalPreservingPrinter lex, int threads) throws IOException {
+        this.prefilter = new ResourcePrefilter();
+        final ThreadLocal<JavaParser> parsers = ThreadLocal.withInitial(JavaParser::new);//one parser per worker
 
-        for (File currFile : files) {//for each file, find all @Path annotations
-            ParseResult<CompilationUnit> temp = parser.parse(currFile);
-            if (temp.isSuccessful()) {
-                Optional<CompilationUnit> opt = temp.getResult();
-                if (opt.isPresent()) {
-                    CompilationUnit compUnit = opt.get();
-                    lex.setup(compUnit);//preparing the node to be used in the lex print method
-                    String name = currFile.getName();
-                    name = FilenameUtils.removeExtension(name);
-                    Optional<ClassOrInterfaceDeclaration> optional = compUnit.getClassByName(name);
-                    if (optional.isPresent()) {
-                        ClassOrInterfaceDeclaration decl = optional.get();
-                        List<AnnotationExpr> ann = decl.getAnnotations();
-                        String currName = currFile.getName();
-                        for (AnnotationExpr elem : ann) {
-                            if (elem.getName().asString().equals("Path") || currName.endsWith("Resource.java")) {//adding REST service
-                                this.RESTServices.add(new AbstractSyntaxTree(currFile, compUnit));
-                            }
-                        }
+        List<AbstractSyntaxTree> found = WorkerPool.map(files, threads,
+                currFile -> parseRESTService(currFile, parsers.get(), true));
 
-                        if (currName.endsWith("Resource.java")) {//if a REST resource file has no annotations or @Path annotation
-                            this.RESTServices.add(new AbstractSyntaxTree(currFile, compUnit));
-                        }
-                    }
+        for (AbstractSyntaxTree tree : found) {//adding REST services
+            if (tree != null) {
+                this.RESTServices.add(tree);
+            }
+        }
+    }
+
+    /**
+     * Description: Finds all files that are REST services and hands each one to the handler as soon as it is parsed,
+     * instead of keeping it in RESTServices. The handler is expected to annotate and write the file and its DTO files,
+     * after which nothing refers to its abstract syntax tree, so only the files currently being handled are in memory.
+     *
+     * @param threads the number of worker threads to parse and handle files on
+     * @param handler called once for every REST service found, from the worker thread that parsed it
+     * @return the REST service files found, in the same order as a sequential search
+     * @throws IOException if the handler fails
+     */
+    public List<File> streamRESTServices(LexicalPreservingPrinter lex, int threads,
+                                         WorkerPool.Task<AbstractSyntaxTree, Void> handler) throws IOException {
+        return mapRESTServices(threads, tree -> {
+            handler.run(tree);
+            return tree.getFile();//only the file is kept, the abstract syntax tree is released
+        });
+    }
+
+    /**
+     * Description: Finds all files that are REST services and hands each one to the handler as soon as it is parsed,
+     * as streamRESTServices() does, keeping what the handler returns instead of the abstract syntax tree.
+     *
+     * @param threads the number of worker threads to parse and handle files on
+     * @param handler called once for every REST service found, from the worker thread that parsed it
+     * @return what the handler returned for each REST service, in the same order as a sequential search
+     * @throws IOException if the handler fails
+     */
+    public <R> List<R> mapRESTServices(int threads, WorkerPool.Task<AbstractSyntaxTree, R> handler)
+            throws IOException {
+        List<R> results = new ArrayList<>();
+        mapRESTServices(threads, handler, results::add);
+        return results;
+    }
+
+    /**
+     * Description: Finds all files that are REST services and hands each one to the handler as soon as it is parsed,
+     * as mapRESTServices() does, handing what the handler returns to the sink as soon as every earlier REST service is
+     * done instead of keeping it until the search ends.
+     *
+     * @param threads the number of worker threads to parse and handle files on
+     * @param handler called once for every REST service found, from the worker thread that parsed it
+     * @param sink    receives what the handler returned for each REST service, in the same order as a sequential search
+     * @throws IOException if the handler or the sink fails
+     */
+    public <R> void mapRESTServices(int threads, WorkerPool.Task<AbstractSyntaxTree, R> handler,
+                                    WorkerPool.Sink<R> sink) throws IOException {
+        this.prefilter = new ResourcePrefilter();
+        final ThreadLocal<JavaParser> parsers = ThreadLocal.withInitial(JavaParser::new);//one parser per worker
+
+        WorkerPool.forEach(files, threads, currFile -> {
+            AbstractSyntaxTree tree = parseRESTService(currFile, parsers.get(), false);
+            //^DTO files are annotated while other files are still being searched, so trees are not shared
+            return tree == null ? Optional.<R>empty() : Optional.of(handler.run(tree));
+        }, result -> {
+            if (result.isPresent()) {
+                sink.accept(result.get());
+            }
+        });
+    }
 
+    /**
+     * Description: Parses the file if the prefilter finds that it could be a REST service
+     *
+     * @param currFile the file to parse
+     * @param parser   the parser of the current worker
+     * @param useCache whether the file is parsed through the parse cache
+     * @return the abstract syntax tree of the file, null if the file is not a REST service
+     * @throws IOException if the file cannot be read
+     */
+    private AbstractSyntaxTree parseRESTService(File currFile, JavaParser parser, boolean useCache) throws IOException {
+        ParseFileEvent event = FlightRecorderEvents.parseFile();//null if Flight Recorder is not available
+        boolean cacheHit = event != null && event.isEnabled() && useCache && this.parseCache.isCached(currFile);//only while recording
+        boolean prefiltered;
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.PREFILTER)) {
+            prefiltered = !this.prefilter.mightBeRESTService(currFile);
+            //^the file cannot be a REST service, so it is not parsed
+        }
+        CompilationUnit compUnit = null;
+        AbstractSyntaxTree tree = null;
+        if (!prefiltered) {
+            if (useCache) {
+                compUnit = this.parseCache.get(currFile, parser);
+            } else {
+                try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.PARSE)) {
+                    ParseResult<CompilationUnit> temp = parser.parse(currFile);
+                    compUnit = temp.isSuccessful() ? temp.getResult().orElse(null) : null;
+                    RunReport.count(compUnit == null ? "parseFailures" : "filesParsed");
+                }
+            }
+            if (compUnit != null) {
+                if (isRESTService(currFile, compUnit)) {//lexical preservation is set up once it is annotated
+                    tree = new AbstractSyntaxTree(currFile, compUnit);
+                } else {
+                    LexicalPreservation.skip(compUnit);
                 }
             }
         }
+        if (event != null && event.shouldCommit()) {
+            event.path = currFile.getPath();
+            event.size = currFile.length();
+            event.nodes = compUnit == null ? 0 : compUnit.findAll(Node.class).size();
+            event.prefiltered = prefiltered;
+            event.cacheHit = cacheHit;
+            event.restService = tree != null;
+            event.commit();
+        }
+        return tree;
+    }
+
+    /**
+     * Description: Checks whether the parsed file is a REST service. A file is a REST service if the class it declares
+     * has an @Path annotation or if the file name ends in Resource.java
+     *
+     * @param file     the parsed file
+     * @param compUnit the abstract syntax tree of the file
+     * @return true if the file is a REST service
+     */
+    public boolean isRESTService(File file, CompilationUnit compUnit) {
+        String name = FilenameUtils.removeExtension(file.getName());
+        Optional<ClassOrInterfaceDeclaration> optional = compUnit.getClassByName(name);
+        if (!optional.isPresent()) {
+            return false;
+        }
+        if (file.getName().endsWith("Resource.java")) {//if a REST resource file has no annotations or @Path annotation
+            return true;
+        }
+        for (AnnotationExpr elem : optional.get().getAnnotations()) {
+            if (elem.getName().asString().equals("Path")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Description: Standard getter for retrieving the engine used to annotate DTO files. More generators can be
+     * registered with the engine before the DTO files are annotated.
+     *
+     * @return the engine used to annotate DTO files
+     */
+    public AnnotationEngine getDTOEngine() {
+        return this.DTOEngine;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the prefilter used by the last findRESTServices() call
+     *
+     * @return the prefilter, null if findRESTServices() has not been called
+     */
+    public ResourcePrefilter getPrefilter() {
+        return this.prefilter;
     }
 
 
@@ -188,10 +392,9 @@ public class FilesToAnnotateFinder {
     public Set<String> createListOfDTOsPresentInMethod(String[] methodDecl) {
         List<String> words = Arrays.asList(methodDecl);
         Set<String> results = new HashSet<>();
-        Pattern pattern = Pattern.compile("([A-Z]{1}[A-Za-z]*DTO)");
 
         for (String word : words) {
-            Matcher matcher = pattern.matcher(word);
+            Matcher matcher = DTOTypeCollector.DTO_NAME.matcher(word);
             while (matcher.find()) {//while a match is found (keep finding DTO objects)
                 String result = matcher.group();
                 results.add(result);
@@ -328,49 +531,57 @@ public class FilesToAnnotateFinder {
         Set<String> toTraverse = new HashSet<>();
 
         for (MethodDeclaration method : methods) {
-            //need to get the getters
-            String methodName = getMethodName(method);
-            List<String> existingLabels = new ArrayList<>();
-            String[] methodDeclToWords = method.getDeclarationAsString(true, true, true).split(" ");
-            if (methodName.toLowerCase().startsWith("get")) {//method is a getter so annotate it
-                if (method.isAnnotationPresent(Schema.class)) {//Schema annotation is present, check if more labels need to be added
-                    List<SchemaLabel.Label> labelsToAdd = needsRequiredSchemaLabels(method);
-                    if (labelsToAdd.size() != 0) {
-                        Optional<AnnotationExpr> opt = method.getAnnotationByClass(Schema.class);
-                        if (opt.isPresent()) {
-                            AnnotationExpr ann = opt.get();
-                            List<Node> children = ann.getChildNodes();
-                            for (Node child : children) {//getting the names of the labels that already exist in the @schema annotation
-                                if (MemberValuePair.class.isAssignableFrom(child.getClass())) {
-                                    MemberValuePair pair = (MemberValuePair) child;
-                                    existingLabels.add(pair.getNameAsString());
-                                }
+            annotateGetter(method);
+            toTraverse.addAll(DTOTypeCollector.collectFromDeclaration(method));//adding all DTO objects to traverse
+        }
+        return toTraverse;
+    }
+
+    /**
+     * Description: Annotates a single getter method with a swagger schema annotation, or adds the missing required
+     * labels to its existing schema annotation. Methods that are not getters are left as they are.
+     *
+     * @param method the method to annotate
+     */
+    public void annotateGetter(MethodDeclaration method) {
+        String methodName = getMethodName(method);
+        List<String> existingLabels = new ArrayList<>();
+        String[] methodDeclToWords = method.getDeclarationAsString(true, true, true).split(" ");
+        if (methodName.toLowerCase().startsWith("get")) {//method is a getter so annotate it
+            if (method.isAnnotationPresent(Schema.class)) {//Schema annotation is present, check if more labels need to be added
+                List<SchemaLabel.Label> labelsToAdd = needsRequiredSchemaLabels(method);
+                if (labelsToAdd.size() != 0) {
+                    Optional<AnnotationExpr> opt = method.getAnnotationByClass(Schema.class);
+                    if (opt.isPresent()) {
+                        AnnotationExpr ann = opt.get();
+                        List<Node> children = ann.getChildNodes();
+                        for (Node child : children) {//getting the names of the labels that already exist in the @schema annotation
+                            if (MemberValuePair.class.isAssignableFrom(child.getClass())) {
+                                MemberValuePair pair = (MemberValuePair) child;
+                                existingLabels.add(pair.getNameAsString());
                             }
-                            NormalAnnotationExpr normalAnnotationExpr = (NormalAnnotationExpr) ann;
-                            for (SchemaLabel.Label label : labelsToAdd) {//iterating thru labels to add
-                                if (!existingLabels.contains(label.toString().toLowerCase())) {//the current label to add does not already exist in the schema annotation
-                                    if (label.equals(SchemaLabel.Label.IMPLEMENTATION)) {
-                                        normalAnnotationExpr.addPair(label.toString().toLowerCase(), addLabelValue(label, method));
-                                    } else {
-                                        normalAnnotationExpr.addPair(label.toString().toLowerCase(), "\"" + addLabelValue(label, method) + "\"");
-                                    }
+                        }
+                        NormalAnnotationExpr normalAnnotationExpr = (NormalAnnotationExpr) ann;
+                        for (SchemaLabel.Label label : labelsToAdd) {//iterating thru labels to add
+                            if (!existingLabels.contains(label.toString().toLowerCase())) {//the current label to add does not already exist in the schema annotation
+                                if (label.equals(SchemaLabel.Label.IMPLEMENTATION)) {
+                                    normalAnnotationExpr.addPair(label.toString().toLowerCase(), addLabelValue(label, method));
+                                } else {
+                                    normalAnnotationExpr.addPair(label.toString().toLowerCase(), "\"" + addLabelValue(label, method) + "\"");
                                 }
                             }
                         }
                     }
-                } else {//Schema annotation is not present, so add it
-                    NodeWithAnnotations annotatedNode = method;
-                    NormalAnnotationExpr ann = annotatedNode.addAndGetAnnotation(Schema.class);
-                    String[] methodNameToWordsArray = splitCamelCase(methodName).split(" ");//creating an array from the method name
-                    String description = createSchemaDescription(methodNameToWordsArray);
-                    ann.addPair("description", "\"" + description + "\"");
-                    ann.addPair("type", "\"" + methodDeclToWords[1] + "\"");//adding the return type of the getter method
                 }
-            }//end annotation process
-
-            toTraverse.addAll(createListOfDTOsPresentInMethod(methodDeclToWords));//adding all DTO objects to traverse
-        }
-        return toTraverse;
+            } else {//Schema annotation is not present, so add it
+                NodeWithAnnotations annotatedNode = method;
+                NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(annotatedNode, Schema.class);
+                String[] methodNameToWordsArray = splitCamelCase(methodName).split(" ");//creating an array from the method name
+                String description = createSchemaDescription(methodNameToWordsArray);
+                ann.addPair("description", "\"" + description + "\"");
+                ann.addPair("type", "\"" + methodDeclToWords[1] + "\"");//adding the return type of the getter method
+            }
+        }//end annotation process
     }
 
     /**
@@ -382,21 +593,9 @@ public class FilesToAnnotateFinder {
      */
     public Set<String> getDTOsFromInstanceVariables(List<FieldDeclaration> instanceVariables) {
         Set<String> results = new HashSet<>();
-        Pattern pattern = Pattern.compile("^([A-Z][A-Za-z]*DTO)+");
 
         for (FieldDeclaration field : instanceVariables) {//iterating thru the list of instance variables
-            String fieldToString = field.toString();
-            String[] fieldToWords = fieldToString.split(" ");
-            for (String word : fieldToWords) {
-                Matcher matcher = pattern.matcher(word);
-                if (matcher.find()) {//a match was found
-                    String object = matcher.group();
-                    results.add(object);
-                    continue;
-                }
-            }
-
-            System.out.println(fieldToString);
+            results.addAll(DTOTypeCollector.collect(field));
         }
         return results;
     }
@@ -411,20 +610,11 @@ public class FilesToAnnotateFinder {
      */
     public void annotateDTOFiles(AbstractSyntaxTree tree, Set<String> seen, LexicalPreservingPrinter lex) throws FileNotFoundException {//this is a recursive function
 
-        Set<String> toTraverse = new HashSet<>();
-
-
         String fileName = tree.getFile().getName();
         fileName = FilenameUtils.removeExtension(fileName);
 
         seen.add(fileName);//adding current file being annotated to seen set
-        CompilationUnit compUnit = tree.getAbstractSyntaxTree();
-        List<MethodDeclaration> methods = getMethodDeclarations(compUnit);
-        List<FieldDeclaration> instanceVariables = getInstanceVariables(compUnit);
-
-        toTraverse.addAll(annotateGetters(methods));//annotating the DTO file's getter methods
-        toTraverse.addAll(getDTOsFromInstanceVariables(instanceVariables));//getting any DTO files present
-        createAndWriteNewFiles(tree, compUnit, lex); //creating and writing the new annotated DTO file
+        Set<String> toTraverse = annotateDTOFile(tree, lex);//annotating and writing the DTO file
 
         /**
          * Starting recursive traversal of DTO file present in the current DTO file:
@@ -436,22 +626,17 @@ public class FilesToAnnotateFinder {
             List<AbstractSyntaxTree> newTrees = new ArrayList<>();
             for (String DTOFileName : toTraverse) {//iterating thru the DTO files to find
                 if (!seen.contains(DTOFileName)) {//only adding in new DTO file to annotate if it does not already exist in seen (preventing infinite loops)
-                    classNametoFile(DTOFileName, "/Users/kpagkatipunan/Desktop/newPLSCode", DTOFilesToAnnotate);
+                    classNametoFile(DTOFileName, tree.getAbstractSyntaxTree(), DTOFilesToAnnotate);
                     seen.add(DTOFileName);
 
                 }
             }
 
+            JavaParser parser = new JavaParser();
             for (File file : DTOFilesToAnnotate) {//creating Abstract syntax trees from DTO files
-                JavaParser parser = new JavaParser();
-                ParseResult<CompilationUnit> temp = parser.parse(file);
-                if (temp.isSuccessful()) {
-                    Optional<CompilationUnit> opt = temp.getResult();
-                    if (opt.isPresent()) {
-                        CompilationUnit compilationUnit = opt.get();
-                        lex.setup(compilationUnit);
-                        newTrees.add(new AbstractSyntaxTree(file, compilationUnit));
-                    }
+                CompilationUnit compilationUnit = this.parseCache.get(file, parser);
+                if (compilationUnit != null) {
+                    newTrees.add(new AbstractSyntaxTree(file, compilationUnit));
                 }
             }//end creating abstract syntax trees from files
 
@@ -462,39 +647,131 @@ public class FilesToAnnotateFinder {
     }
 
     /**
-     * Description: Writing content and new annotations to new files
+     * Description: Annotates the getter methods of a single DTO file, including the getters of nested classes, and
+     * writes the annotated file. The DTO files present in this DTO file are returned but are not annotated.
      *
-     * @param file     the file to create a new (annotated) file from
-     * @param compUnit the abstract syntax tree to get the new content to write to the new file
+     * @param tree the abstract syntax tree of the DTO file to annotate
+     * @return set of DTO objects present in the getter methods and instance variables of the DTO file
      */
-    public void createAndWriteNewFiles(AbstractSyntaxTree file, CompilationUnit compUnit, LexicalPreservingPrinter lex) {
-        String fileName = file.getFile().getName();
-        String content = compUnit.toString();
-        List<Comment> orphanComments = compUnit.getOrphanComments();
-        String[] contentList = content.split("\n");
-       /* String allContent = writeContent(contentList, orphanComments);*/
-        String allContent = lex.print(compUnit);
+    public Set<String> annotateDTOFile(AbstractSyntaxTree tree, LexicalPreservingPrinter lex) {
+        Set<String> toTraverse = new HashSet<>();
+        CompilationUnit compUnit = tree.getAbstractSyntaxTree();
+        List<MethodDeclaration> methods = new ArrayList<>();//filled by the same walk that finds the getters to annotate
+        List<FieldDeclaration> instanceVariables = getInstanceVariables(compUnit);
 
-       /*
-        boolean t = new File("/Users/kpagkatipunan/Desktop/swagger-automation/src/main/java/newFiles").mkdirs();
-        File newFile =
-                new File("/Users/kpagkatipunan/Desktop/swagger-automation/src/main/java/newFiles/" + fileName);*/
+        AnnotateFileEvent event = FlightRecorderEvents.annotateFile();//null if Flight Recorder is not available
+        int annotationsBefore = event != null && event.isEnabled() ? AnnotateFileEvent.countSwaggerAnnotations(compUnit) : 0;
+        List<AnnotationTarget> gettersToAnnotate = this.DTOEngine.findTargets(compUnit, methods);
+        boolean modified = !gettersToAnnotate.isEmpty();
+        if (modified) {//lexical preservation is only set up on DTO files that will be modified
+            LexicalPreservation.setup(lex, compUnit);
+            this.DTOEngine.annotate(gettersToAnnotate);//annotating the DTO file's getter methods
+        } else {
+            LexicalPreservation.skip(compUnit);
+        }
+        for (MethodDeclaration method : methods) {
+            toTraverse.addAll(DTOTypeCollector.collectFromDeclaration(method));
+        }
+        toTraverse.addAll(getDTOsFromInstanceVariables(instanceVariables));//getting any DTO files present
+        if (event != null) {
+            event.end();//the time taken to write the file is recorded by its WriteFileEvent
+        }
+        if (event != null && event.shouldCommit()) {
+            event.commit(tree.getFile().getPath(), AnnotateFileEvent.DTO, compUnit, gettersToAnnotate.size(),
+                    annotationsBefore);
+        }
+        if (modified) {
+            createAndWriteNewFiles(tree, compUnit, lex); //creating and writing the new annotated DTO file
+            this.parseCache.invalidate(tree.getFile());//the cached tree is out of date and holds the lexical data
+        }
+        return toTraverse;
+    }
 
-        //TODO: THIS IS THE LINE YOUR CHANGED TO ACTUALLY PLACE CHANGES IN PLS FILES
-        String path = file.getFile().getAbsolutePath();
+    /**
+     * Description: Checks whether annotateGetter() would modify the given method
+     *
+     * @param method the method to check
+     * @return true if the method is a getter that is missing its @Schema annotation or a required label
+     */
+    public boolean needsGetterAnnotation(MethodDeclaration method) {
+        if (!getMethodName(method).toLowerCase().startsWith("get")) {//only getters are annotated
+            return false;
+        }
+        if (!method.isAnnotationPresent(Schema.class)) {
+            return true;
+        }
+        List<SchemaLabel.Label> labelsToAdd = needsRequiredSchemaLabels(method);
+        Optional<AnnotationExpr> opt = method.getAnnotationByClass(Schema.class);
+        if (labelsToAdd.size() != 0 && opt.isPresent()) {
+            List<String> existingLabels = new ArrayList<>();
+            for (Node child : opt.get().getChildNodes()) {
+                if (MemberValuePair.class.isAssignableFrom(child.getClass())) {
+                    existingLabels.add(((MemberValuePair) child).getNameAsString());
+                }
+            }
+            for (SchemaLabel.Label label : labelsToAdd) {
+                if (!existingLabels.contains(label.toString().toLowerCase())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        try {
-            Files.delete(Paths.get(path));
-            File newFile = new File(path); //creating a new file in the same directory as the file to replace
+    /**
+     * Description: Finds all DTO objects that a DTO file depends on. These are the DTO objects present in the file's
+     * method declarations (including its getters), instance variables, and import statements. Method bodies are not
+     * searched. The DTO file's own name is not included.
+     *
+     * @param compUnit the abstract syntax tree of the DTO file
+     * @return set of the names of the DTO objects the DTO file depends on
+     */
+    public Set<String> getDTOsReferencedByDTO(CompilationUnit compUnit) {
+        Set<String> results = new HashSet<>();
+        for (MethodDeclaration method : getMethodDeclarations(compUnit)) {//DTOs in getters and method signatures
+            results.addAll(DTOTypeCollector.collectFromDeclaration(method));
+        }
+        results.addAll(getDTOsFromInstanceVariables(getInstanceVariables(compUnit)));//DTOs in instance variables
+        for (ImportDeclaration importDeclaration : compUnit.getImports()) {//DTOs in import statements
+            String importName = importDeclaration.getNameAsString();
+            if (importName.endsWith("DTO")) {
+                results.add(importName.substring(importName.lastIndexOf('.') + 1));
+            }
+        }
+        for (ClassOrInterfaceDeclaration decl : compUnit.findAll(ClassOrInterfaceDeclaration.class)) {
+            results.remove(decl.getNameAsString());//a DTO file does not depend on itself
+        }
+        return results;
+    }
 
-            FileWriter fileWriter = new FileWriter(newFile);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
-            bufferedWriter.write(allContent);
-            bufferedWriter.close();
+    /**
+     * Description: Writing content and new annotations to new files. The file is not written if its content did not
+     * change.
+     *
+     * @param file     the file to create a new (annotated) file from
+     * @param compUnit the abstract syntax tree to get the new content to write to the new file
+     */
+    public void createAndWriteNewFiles(AbstractSyntaxTree file, CompilationUnit compUnit, LexicalPreservingPrinter lex) {
+        WriteFileEvent event = FlightRecorderEvents.writeFile();//null if Flight Recorder is not available
+        String allContent;
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.PRINT)) {
+            ImportManager.apply(compUnit);//adding the queued import statements
+            allContent = lex.print(compUnit);
+        }
 
+        boolean written = false;//whether the file's content changed
+        try {
+            written = this.writer.write(file.getFile(), allContent);//only written if the content changed
         } catch (IOException e) {
             System.out.println("Invaild permissions");
         }
+        if (event != null && event.shouldCommit()) {
+            event.path = file.getFile().getPath();
+            event.size = allContent.getBytes(StandardCharsets.UTF_8).length;
+            event.nodes = compUnit.findAll(Node.class).size();
+            event.written = written;
+            event.commit();
+        }
     }
 
 
@@ -560,15 +837,10 @@ public class FilesToAnnotateFinder {
             String fileName = file.getName();
             fileName = FilenameUtils.removeExtension(fileName);
             seen.add(fileName);
-            ParseResult<CompilationUnit> result = parser.parse(file);
-            if (result.isSuccessful()) {
-                Optional<CompilationUnit> opt = result.getResult();
-                if (opt.isPresent()) {
-                    CompilationUnit compilationUnit = opt.get();
-                    lex.setup(compilationUnit);
-                    AbstractSyntaxTree newTree = new AbstractSyntaxTree(file, compilationUnit);
-                    trees.add(newTree);
-                }
+            CompilationUnit compilationUnit = this.parseCache.get(file, parser);
+            if (compilationUnit != null) {
+                AbstractSyntaxTree newTree = new AbstractSyntaxTree(file, compilationUnit);
+                trees.add(newTree);
             }
         }//end creating list of ASTs of DTO files to annotate
         return trees;
@@ -626,22 +898,74 @@ public class FilesToAnnotateFinder {
 
     /**
      * Description: Searches for the file corresponding to the parameter name. Adds the file that is found to the results
-     * list. If the file is not found, no file is added
+     * list. If the file is not found, no file is added. The directory is only walked the first time it is searched,
+     * every search after that is a lookup in the directory's SourceIndex.
      *
      * @param className     the parameter to search for
      * @param directoryPath the directory to search in for the parameter
      * @param results       the map to add the target file to
      */
     public void classNametoFile(String className, String directoryPath, Set<File> results) {
-        File plsCoreDirectory = new File(directoryPath);
-        String toSearch = className + ".java";
-        List<String> DTOFilePaths = searchDirectory(plsCoreDirectory, toSearch);
-        //^Finding the DTO file corresponding to the DTO object
-        if (DTOFilePaths.size() != 0) {//adding the DTO file to the results list
-            String DTOFilePath = DTOFilePaths.get(0);
-            File DTOFile = new File(DTOFilePath);
+        ResolveClassEvent event = FlightRecorderEvents.resolveClass();//null if Flight Recorder is not available
+        boolean cacheHit = event != null && event.isEnabled() && this.sourceIndexes.containsKey(directoryPath);//only while recording
+        File DTOFile;
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.DTO_RESOLUTION)) {
+            DTOFile = getSourceIndex(directoryPath).getFile(className);//Finding the DTO file corresponding to the DTO object
+        }
+        if (DTOFile != null) {//adding the DTO file to the results list
+            results.add(DTOFile);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.className = className;
+            event.context = directoryPath;
+            event.path = DTOFile == null ? null : DTOFile.getPath();
+            event.cacheHit = cacheHit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Description: Searches for the file declaring the class name used in the given file. The name is resolved through
+     * the file's package and imports, so the right file is found even when several files declare the same simple name.
+     * If the name cannot be resolved, no file is added and the name is reported by the type resolver.
+     *
+     * @param className the class name to search for
+     * @param context   the file the class name is used in
+     * @param results   the set to add the target file to
+     */
+    public void classNametoFile(String className, CompilationUnit context, Set<File> results) {
+        ResolveClassEvent event = FlightRecorderEvents.resolveClass();//null if Flight Recorder is not available
+        boolean cacheHit = event != null && event.isEnabled() && this.typeResolver.isCached(className, context);//only while recording
+        File DTOFile;
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.DTO_RESOLUTION)) {
+            DTOFile = this.typeResolver.resolve(className, context);
+        }
+        if (DTOFile != null) {//adding the DTO file to the results list
             results.add(DTOFile);
         }
+        if (event != null && event.shouldCommit()) {
+            event.className = className;
+            event.context = context.getStorage().map(storage -> storage.getPath().toString()).orElse(null);
+            event.path = DTOFile == null ? null : DTOFile.getPath();
+            event.cacheHit = cacheHit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Description: Retrieves the index of the java files in the given directory, creating it if the directory has not
+     * been indexed yet. DTO names are resolved from several worker threads, so the directory is indexed once.
+     *
+     * @param directoryPath the directory to retrieve the index for
+     * @return the index of the java files in the directory
+     */
+    public synchronized SourceIndex getSourceIndex(String directoryPath) {
+        SourceIndex index = this.sourceIndexes.get(directoryPath);
+        if (index == null) {//the directory has not been walked yet
+            index = new SourceIndex(new File(directoryPath));
+            this.sourceIndexes.put(directoryPath, index);
+        }
+        return index;
     }
 
     /**
@@ -661,12 +985,11 @@ public class FilesToAnnotateFinder {
             Optional<BlockStmt> opt = method.getBody();
             if (opt.isPresent()) {
                 BlockStmt methodBody = opt.get();
-                String[] methodBodyStringToWords = methodBody.toString().split(" ");
-                Set<String> DTOsPresent = createListOfDTOsPresentInMethod(methodBodyStringToWords);
+                Set<String> DTOsPresent = DTOTypeCollector.collect(methodBody);
                 for (String DTO : DTOsPresent) {//iterating thru DTOs present in the method declaration
                     if (!DTOsSeen.contains(DTO)) {//if the current DTO object has not been seen yet
 
-                        classNametoFile(DTO, "/Users/kpagkatipunan/Desktop/newPLSCode", results);
+                        classNametoFile(DTO, compUnit, results);
                         DTOsSeen.add(DTO);
 
                     }
@@ -674,11 +997,10 @@ public class FilesToAnnotateFinder {
             }//end retrieving DTOs from method body
 
             //Checking for DTOs in the method declaration
-            String[] methodDeclToWords = method.getDeclarationAsString().split(" ");
-            Set<String> DTOsPresent = createListOfDTOsPresentInMethod(methodDeclToWords);
+            Set<String> DTOsPresent = DTOTypeCollector.collectFromDeclaration(method);
             for (String DTO : DTOsPresent) {//iterating thru DTOs present in the method declaration
                 if (!DTOsSeen.contains(DTO)) {
-                    classNametoFile(DTO, "/Users/kpagkatipunan/Desktop/newPLSCode", results);
+                    classNametoFile(DTO, compUnit, results);
                     DTOsSeen.add(DTO);
                 }
             }
@@ -692,7 +1014,7 @@ public class FilesToAnnotateFinder {
                 importName = importNameToWords[importNameToWords.length - 1];//the name of the DTO object is the last element in the array
                 if (!DTOsSeen.contains(importName)) {//if the current DTO object has not been seen yet
                     if (!DTOsSeen.contains(importName)) {
-                        classNametoFile(importName, "/Users/kpagkatipunan/Desktop/newPLSCode", results);
+                        classNametoFile(importName, compUnit, results);
                         DTOsSeen.add(importName);
                     }
                 }
@@ -703,7 +1025,7 @@ public class FilesToAnnotateFinder {
         Set<String> DTOsToAnnotate = getDTOsFromInstanceVariables(fields);//finding DTO files in instance variables
         for (String DTO : DTOsToAnnotate) {
             if (!DTOsSeen.contains(DTO)) {//if the current DTO object has not been seen yet
-                classNametoFile(DTO, "/Users/kpagkatipunan/Desktop/newPLSCode", results);
+                classNametoFile(DTO, compUnit, results);
                 DTOsSeen.add(DTO);
             }
         }
@@ -743,26 +1065,61 @@ public class FilesToAnnotateFinder {
     /**
      * Description: Finds all elements in a file directory that are PLS files and adds them to the list of files to search for.
      * This method is for use by the main method (temporary) to extract the REST service files that result from the output
-     * of this method
+     * of this method. Every java file that is not in a build output directory or ignored by a .gitignore file is found.
+     *
+     * @param files the directories (or files) to search
+     * @throws IOException if a directory cannot be walked
+     */
+    public void getFiles(File[] files) throws IOException {
+        getFiles(files, new SourceDiscovery());
+    }
+
+    /**
+     * Description: Finds the files in the given directories using the given discovery settings and adds them to the
+     * list of files to search for
      *
-     * @param files
-     * @return list of files in the target directory
+     * @param files     the directories (or files) to search
+     * @param discovery the include and exclude rules to use
+     * @throws IOException if a directory cannot be walked
      */
-    public void getFiles(File[] files) {
+    public void getFiles(File[] files, SourceDiscovery discovery) throws IOException {
+        Path[] roots = new Path[files.length];
+        for (int i = 0; i < files.length; i++) {
+            roots[i] = files[i].toPath();
+        }
         List<File> results = new ArrayList<>();
-        for (File file : files) {
-            if (file.isDirectory()) {//the current element is a directory
-                getFiles(file.listFiles()); // Calls same method again.
-            } else {//the current element is a file
-                // if(file.getName().equalsIgnoreCase("LDAPAuthResource.java")){
-                results.add(file);//adding file to results
-                //}
-            }
+        discovery.discover(roots).forEach(path -> results.add(path.toFile()));
+        setRESTServices(results);
+    }
+
+    /**
+     * Description: Finds which of the changed files a search of the given directories would find, and adds them to the
+     * list of files to search for. The directories are not walked, but each changed file must pass the same include,
+     * exclude, and .gitignore rules relative to the directory containing it, and the directories in between must not
+     * be pruned. Changed files outside of the given directories are dropped.
+     *
+     * @param changedFiles the files touched by a change
+     * @param roots        the directories that would be searched
+     * @param discovery    the include and exclude rules to use
+     */
+    public void getChangedFiles(Collection<File> changedFiles, File[] roots, SourceDiscovery discovery) {
+        List<Path> paths = new ArrayList<>();
+        for (File file : changedFiles) {
+            paths.add(file.toPath());
         }
+        Path[] rootPaths = new Path[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            rootPaths[i] = roots[i].toPath();
+        }
+        List<File> results = new ArrayList<>();
+        discovery.filter(paths, rootPaths).forEach(path -> results.add(path.toFile()));
         setRESTServices(results);
     }
 
     public static void main(String[] args) throws IOException {
+        RunOptions options = RunOptions.parse(args);
+        RunReport.reset();
+        RunReport.setEnabled(options.getReportFile() != null);//phases are only timed when a report is written
 
         /*File file1 = new File("/Users/kpagkatipunan/Desktop/swagger-automation/src/main/java/OperationSuccessTestFile.java");
         File file2 = new File("/Users/kpagkatipunan/Desktop/swagger-automation/src/main/java/OperationFailedTestFile.java");
@@ -789,7 +1146,6 @@ public class FilesToAnnotateFinder {
 */
 
         //Deciding to do a depth-first search for REST files
-        int dtosAnnotated = 0;
         ArrayList<File> files = new ArrayList<File>();
         LexicalPreservingPrinter lex = new LexicalPreservingPrinter();
      /*   java.nio.file.Path directoryPath = Paths.get("/Users/kpagkatipunan/Desktop/Projects/pls-api");
@@ -808,13 +1164,19 @@ public class FilesToAnnotateFinder {
             e.printStackTrace();
         }*/
 
-        File PLSDirectory = new File("/Users/kpagkatipunan/Desktop/newPLSCode");
+        File PLSDirectory = new File(options.getRoot());
         ArrayList<String> annotations = new ArrayList<>();
         annotations.add("@Operation");
         annotations.add("@Parameter");
         annotations.add("@Schema");
         annotations.add("@ApiResponse");
         FilesToAnnotateFinder finder = new FilesToAnnotateFinder(files);
+        SourceFileWriter writer = new SourceFileWriter(options.getSyncBatchSize());
+        finder.setWriter(writer);
+        finder.setTypeResolver(new TypeResolver(finder, Collections.singletonList(PLSDirectory.getPath())));
+        if (options.getParseCacheBytes() >= 0) {
+            finder.setParseCache(new CompilationUnitCache(options.getParseCacheBytes()));
+        }
 
         List<File> filesToSearch = new ArrayList<>();
         for (File file : PLSDirectory.listFiles()) {//retrieving file directories in PLS Directory that have pls in the name
@@ -825,24 +1187,282 @@ public class FilesToAnnotateFinder {
         }
 
         File[] filesToSearchArray = filesToSearch.toArray(new File[0]);
-        finder.getFiles(filesToSearchArray);
-        finder.findRESTServices(lex);
-        FileBuilder fileBuilder = new FileBuilder(finder.RESTServices, annotations);
-        fileBuilder.checkAndWriteAnnotations(lex);
+        SourceDiscovery discovery = new SourceDiscovery();
+        for (String glob : options.getIncludes()) {
+            discovery.addInclude(glob);
+        }
+        for (String glob : options.getExcludes()) {
+            discovery.addExclude(glob);
+        }
+        discovery.setUseGitignore(options.isUseGitignore());
+        discovery.setThreads(options.getThreads());
+
+        List<File> changedFiles = null;//the files touched by a change, null to search every file
+        if (options.isChangedFromStdin()) {//paths piped in, ex. git diff --name-only -z base...HEAD
+            changedFiles = ChangedFiles.readPaths(System.in, new File("").getAbsoluteFile());
+        } else if (options.getChangedSince() != null) {
+            changedFiles = ChangedFiles.fromGit(PLSDirectory, options.getChangedSince());
+        }
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.DISCOVERY)) {
+            if (changedFiles != null) {//only the changed source files are searched, the directories are not walked
+                finder.getChangedFiles(changedFiles, filesToSearchArray, discovery);
+                System.out.println("Searching " + finder.files.size() + " changed source files.");
+            } else {
+                finder.getFiles(filesToSearchArray, discovery);
+                System.out.println(discovery.summary());
+            }
+        }
+        RunReport.count("filesDiscovered", finder.files.size());
+        if (options.getOpenApiFile() != null) {//documenting the REST services without changing any source file
+            writeOpenApi(finder, PLSDirectory, options, lex);
+            return;
+        }
+
+        IncrementalManifest manifest = null;
+        Set<File> changed = null;//the files to process along with the files that depend on them
+        if (options.isIncremental()) {//only searching the files that changed since the last run
+            manifest = IncrementalManifest.load(PLSDirectory);
+            if (changedFiles == null) {
+                changed = new LinkedHashSet<>(manifest.removeUnchanged(finder.files));
+                changed.addAll(manifest.findChanged(IncrementalManifest.Kind.DTO));
+                System.out.println("Skipped " + manifest.getFilesUnchanged() + " files unchanged since the last run, "
+                        + changed.size() + " files changed.");
+            }
+        } else if (options.isWatch()) {//the content of every file is kept in memory to tell which files changed
+            manifest = new IncrementalManifest(IncrementalManifest.manifestFileOf(PLSDirectory));
+        }
+        if (changedFiles != null) {
+            changed = new LinkedHashSet<>(finder.files);
+        }
+
+        List<File> changedDTOFiles = new ArrayList<>();
+        if (changed != null) {
+            finder.files = splitChangedFiles(changed, manifest, changedDTOFiles);
+        }
+        annotate(finder, changedDTOFiles, manifest, options, annotations, writer, lex);
+
+        if (options.isWatch()) {
+            watch(finder, filesToSearchArray, discovery, manifest, options, annotations, writer, lex);
+        }
+    }
+
+    /**
+     * Description: Splits the changed files into the DTO files, which are annotated by the DTO graph, and the files to
+     * search for REST services. The files that reach a changed file, as recorded by the manifest, are processed too.
+     *
+     * @param changed         the changed files
+     * @param manifest        the manifest of the last run, null if there is none
+     * @param changedDTOFiles the list to add the changed DTO files to
+     * @return the files to search for REST services
+     */
+    private static List<File> splitChangedFiles(Set<File> changed, IncrementalManifest manifest,
+                                                List<File> changedDTOFiles) {
+        Set<File> toReprocess = manifest == null ? changed : manifest.filesToReprocess(changed);
+        //^the changed files and the files that reach them, as recorded by the last incremental run
+        List<File> filesToReprocess = new ArrayList<>();
+        for (File file : toReprocess) {
+            IncrementalManifest.Kind kind = manifest == null ? null : manifest.getKind(file);
+            if (kind == IncrementalManifest.Kind.DTO || (kind == null && DTOTypeCollector.isDTOName(
+                    FilenameUtils.removeExtension(file.getName())))) {//DTO files are annotated by the graph
+                changedDTOFiles.add(file);
+            } else {
+                filesToReprocess.add(file);
+            }
+        }
+        return filesToReprocess;
+    }
+
+    /**
+     * Description: Annotates the REST services among the finder's files and the DTO files they reach, records the
+     * files processed in the manifest, and prints a summary of the run
+     *
+     * @param finder          the finder holding the files to search
+     * @param changedDTOFiles DTO files to annotate even if no REST service reaches them
+     * @param manifest        the manifest to record the files processed in, null if there is none
+     * @param options         the run options
+     * @param annotations     the annotations to add
+     * @param writer          the writer used to write annotated files
+     * @param lex             the printer used to preserve the formatting of annotated files
+     * @throws IOException if a file cannot be written or the manifest cannot be saved
+     */
+    private static void annotate(FilesToAnnotateFinder finder, List<File> changedDTOFiles,
+                                 IncrementalManifest manifest, RunOptions options, ArrayList<String> annotations,
+                                 SourceFileWriter writer, LexicalPreservingPrinter lex) throws IOException {
+        DTOGraph graph = new DTOGraph(finder, lex);
+        graph.setManifest(manifest);
+        List<File> resourceFiles = new ArrayList<>();
+        if (options.isStreaming()) {//each REST service is annotated along with its DTO files and then released
+            FileBuilder fileBuilder = new FileBuilder(new HashSet<>(), annotations);
+            fileBuilder.setWriter(writer);
+            resourceFiles.addAll(finder.streamRESTServices(lex, options.getThreads(), tree -> {
+                fileBuilder.annotateFile(tree, lex);
+                synchronized (graph) {//the graph is shared by every worker
+                    graph.addResource(tree);
+                    graph.annotateAll();//only the DTO files not annotated by an earlier REST service
+                }
+                return null;
+            }));
+            graph.addDTOFiles(changedDTOFiles);
+            graph.annotateAll();
+        } else {
+            finder.findRESTServices(lex, options.getThreads());
+            FileBuilder fileBuilder = new FileBuilder(finder.RESTServices, annotations);
+            fileBuilder.setWriter(writer);
+            fileBuilder.checkAndWriteAnnotations(lex, options.getThreads());
+
+            for (AbstractSyntaxTree tree : finder.RESTServices) {//adding the DTO files present in each REST file to the graph
+                graph.addResource(tree);
+                resourceFiles.add(tree.getFile());
+            }
+            graph.addDTOFiles(changedDTOFiles);
+            graph.annotateAll();//annotating every DTO file once, dependencies first
+        }
+        int dtosAnnotated = graph.getAnnotatedFiles().size();
+        System.out.println("Prefilter skipped " + finder.getPrefilter().getFilesSkipped() + " of "
+                + finder.getPrefilter().getFilesChecked() + " files.");
+
+        writer.flush();
 
-        for (AbstractSyntaxTree tree : finder.RESTServices) {//iterating thru the REST service files
-            Set<String> seen = new HashSet<>();
-            List<AbstractSyntaxTree> trees = finder.createASTsFromDTOFile(tree, seen, lex);//creating abstract syntax trees of the DTO files present in the REST file
-            for (AbstractSyntaxTree newTree : trees) {//iterating thru the DTO files present in the current REST file
-                finder.annotateDTOFiles(newTree, seen, lex);
-                dtosAnnotated++;
-                //^The above call performs a depth first search for all DTO files
+        if (manifest != null) {//recording the content of every file processed by this run
+            for (File file : finder.files) {
+                manifest.record(file, IncrementalManifest.Kind.OTHER);
+            }
+            for (File file : resourceFiles) {
+                manifest.record(file, IncrementalManifest.Kind.RESOURCE);
+            }
+            for (File file : graph.getAnnotatedFiles()) {
+                manifest.record(file, IncrementalManifest.Kind.DTO);
+            }
+            for (Map.Entry<File, Set<File>> dependencies : graph.getDependencies().entrySet()) {
+                manifest.recordDependencies(dependencies.getKey(), dependencies.getValue());
+            }
+            if (options.isIncremental()) {//a watch only run keeps the manifest in memory
+                manifest.save();
             }
         }
 
 
-        System.out.println("Annotated " + finder.RESTServices.size() + " resource.java files.");
+        System.out.println("Annotated " + resourceFiles.size() + " resource.java files.");
         System.out.println("Annotated " + dtosAnnotated + " DTO files.");
+        System.out.println("DTO graph: " + graph.size() + " DTO files, " + graph.getEdgeCount() + " dependencies, "
+                + graph.getDuplicateVisitsAvoided() + " duplicate visits avoided.");
+        System.out.println(LexicalPreservation.summary());
+        System.out.println(AnnotationTemplates.summary());
+        System.out.println(finder.getParseCache().summary());
+        System.out.println(finder.getTypeResolver().summary());
+        System.out.println("Wrote " + writer.getFilesWritten() + " files (" + writer.getBytesWritten() + " bytes), skipped "
+                + writer.getFilesSkipped() + " unchanged files.");
+
+        if (options.getReportFile() != null) {
+            RunReport.count("resourceFilesAnnotated", resourceFiles.size());
+            RunReport.count("dtoFilesAnnotated", dtosAnnotated);
+            RunReport.count("filesSkippedByPrefilter", finder.getPrefilter().getFilesSkipped());
+            RunReport.write(new File(options.getReportFile()), options);
+            System.out.println("Wrote the run report to " + options.getReportFile() + ".");
+        }
+    }
+
+    /**
+     * Description: Writes an OpenAPI document of the REST services found instead of annotating them. Each REST service
+     * is documented into a buffer and released as soon as it is parsed, as in a streaming run, and each buffer is
+     * added to the document as soon as every earlier file is done, so only the files in flight are held. No source
+     * file is written.
+     *
+     * @param finder  the finder holding the files to search
+     * @param root    the directory searched, whose name is used as the title of the document
+     * @param options the run options
+     * @param lex     the printer handed to the REST service search
+     * @throws IOException if the document cannot be written
+     */
+    private static void writeOpenApi(FilesToAnnotateFinder finder, File root, RunOptions options,
+                                     LexicalPreservingPrinter lex) throws IOException {
+        List<File> resourceFiles = new ArrayList<>(); // the REST service files documented
+        try (OpenApiWriter openApi = new OpenApiWriter(new File(options.getOpenApiFile()),
+                root.getAbsoluteFile().getName(), finder)) {
+            finder.mapRESTServices(options.getThreads(), openApi::document, paths -> {
+                openApi.writeResource(paths);//in file order, whichever worker finished first
+                resourceFiles.add(paths.getFile());
+            });
+            openApi.finish();
+            System.out.println(openApi.summary());
+        }
+        System.out.println("Prefilter skipped " + finder.getPrefilter().getFilesSkipped() + " of "
+                + finder.getPrefilter().getFilesChecked() + " files.");
+        System.out.println(finder.getTypeResolver().summary());
+        System.out.println("Wrote the OpenAPI document of " + resourceFiles.size() + " resource.java files to "
+                + options.getOpenApiFile() + ".");
+
+        if (options.getReportFile() != null) {
+            RunReport.count("resourceFilesDocumented", resourceFiles.size());
+            RunReport.count("filesSkippedByPrefilter", finder.getPrefilter().getFilesSkipped());
+            RunReport.write(new File(options.getReportFile()), options);
+            System.out.println("Wrote the run report to " + options.getReportFile() + ".");
+        }
+    }
+
+    /**
+     * Description: Watches the searched directories and annotates the files that change, along with the files that
+     * reach them, until the process is stopped. The manifest built by the first run tells which files reach a changed
+     * file and which events did not change a file's content. Files written by this process are ignored.
+     *
+     * @param finder      the finder used by the first run
+     * @param roots       the directories to watch
+     * @param discovery   the include, exclude, and .gitignore rules changed files must pass
+     * @param manifest    the manifest built by the first run
+     * @param options     the run options
+     * @param annotations the annotations to add
+     * @param writer      the writer used to write annotated files
+     * @param lex         the printer used to preserve the formatting of annotated files
+     * @throws IOException if a directory cannot be watched or a file cannot be written
+     */
+    private static void watch(FilesToAnnotateFinder finder, File[] roots, SourceDiscovery discovery,
+                              IncrementalManifest manifest, RunOptions options, ArrayList<String> annotations,
+                              SourceFileWriter writer, LexicalPreservingPrinter lex) throws IOException {
+        try (SourceWatcher watcher = new SourceWatcher(writer)) {
+            for (File root : roots) {
+                watcher.register(root.toPath());
+            }
+            System.out.println("Watching " + watcher.getDirectoriesWatched() + " directories for changes.");
+            while (true) {
+                Set<File> changedFiles;
+                try {
+                    changedFiles = watcher.awaitChanges();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (watcher.hasFilesCreated()) {//a new file may be the one a class name refers to
+                    finder.invalidateSourceIndexes();
+                }
+                RunReport.reset();//the report of each batch replaces the last one
+                finder.files = new ArrayList<>();
+                try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.DISCOVERY)) {
+                    finder.getChangedFiles(changedFiles, roots, discovery);//the same rules as a search of the roots
+                }
+                RunReport.count("filesDiscovered", finder.files.size());
+                Set<File> changed = new LinkedHashSet<>(manifest.removeUnchanged(finder.files));
+                //^saving a file without editing it changes nothing
+                if (changed.isEmpty()) {
+                    continue;
+                }
+                System.out.println(changed.size() + " files changed (" + watcher.getOwnWritesIgnored()
+                        + " of this process's writes ignored so far).");
+
+                List<File> changedDTOFiles = new ArrayList<>();
+                finder.files = splitChangedFiles(changed, manifest, changedDTOFiles);
+                finder.RESTServices = new LinkedHashSet<>();
+                annotate(finder, changedDTOFiles, manifest, options, annotations, writer, lex);
+            }
+        }
+    }
+
+    /**
+     * Description: Forgets the indexes of class names to files, so that files created since a directory was indexed
+     * are found
+     */
+    public void invalidateSourceIndexes() {
+        this.sourceIndexes.clear();
+        this.typeResolver.clear();
     }
 
 }
@@ -0,0 +1,81 @@
+/**
+ * Description: This class checks once whether the JDK Flight Recorder API (jdk.jfr) can be loaded. It is missing from
+ * Java 8 builds older than 8u262 and from runtimes built without the jdk.jfr module. The event classes (ParseFileEvent,
+ * AnnotateFileEvent, WriteFileEvent, ResolveClassEvent) extend jdk.jfr.Event, so they must never be loaded when it is
+ * missing: code that records an event creates it with one of the methods below, and a null event is one that is not
+ * being recorded.
+ */
+
+final class FlightRecorderEvents {
+
+    static final boolean AVAILABLE = isAvailable(); // whether jdk.jfr.Event can be loaded
+
+    private FlightRecorderEvents() {
+
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Description: Creates and begins an event for a file checked by the REST service search
+     *
+     * @return the event, null if Flight Recorder is not available
+     */
+    static ParseFileEvent parseFile() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        ParseFileEvent event = new ParseFileEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Description: Creates and begins an event for a file being annotated
+     *
+     * @return the event, null if Flight Recorder is not available
+     */
+    static AnnotateFileEvent annotateFile() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        AnnotateFileEvent event = new AnnotateFileEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Description: Creates and begins an event for an annotated file being printed and written
+     *
+     * @return the event, null if Flight Recorder is not available
+     */
+    static WriteFileEvent writeFile() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        WriteFileEvent event = new WriteFileEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Description: Creates and begins an event for a class name being resolved to its file
+     *
+     * @return the event, null if Flight Recorder is not available
+     */
+    static ResolveClassEvent resolveClass() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        ResolveClassEvent event = new ResolveClassEvent();
+        event.begin();
+        return event;
+    }
+}
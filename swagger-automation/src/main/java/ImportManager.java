@@ -0,0 +1,208 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.Name;
+import com.github.javaparser.ast.expr.SimpleName;
+
+import java.util.*;
+
+/**
+ * Description: This class keeps track of the import statements of a single file while it is being annotated. The
+ * imports of the file are read once into a hash set of fully qualified names (and a set of the packages imported with
+ * a wildcard), so checking whether a class is already imported does not scan the import statements. Imports to add and
+ * imports to remove are queued, and are applied to the file in one batch just before it is printed. Imports queued with
+ * removeIfUnused() are only removed if no annotation, type, or name in the file still uses the class.
+ * <p>
+ * The manager of a file is stored on its CompilationUnit, so every part of the tool that annotates the file shares it.
+ */
+
+public class ImportManager {
+
+    private static final DataKey<ImportManager> KEY = new DataKey<ImportManager>() {
+    }; // key of the manager stored on its CompilationUnit
+
+    private CompilationUnit compUnit; // the file whose imports are managed
+    private Set<String> names; // fully qualified names of the classes imported, including queued additions
+    private Set<String> wildcardPackages; // packages imported with a wildcard
+    private List<String> toAdd; // fully qualified names to import, in the order they were added
+    private Set<String> toRemove; // fully qualified names to stop importing if they are no longer used
+
+    /**
+     * Description: Creates a manager for the imports of the given file
+     *
+     * @param compUnit the file whose imports are managed
+     */
+    private ImportManager(CompilationUnit compUnit) {
+        this.compUnit = compUnit;
+        this.names = new HashSet<>();
+        this.wildcardPackages = new HashSet<>();
+        this.toAdd = new ArrayList<>();
+        this.toRemove = new LinkedHashSet<>();
+        for (ImportDeclaration importDeclaration : compUnit.getImports()) {//indexing the existing imports once
+            if (importDeclaration.isStatic()) {
+                continue;
+            }
+            if (importDeclaration.isAsterisk()) {
+                this.wildcardPackages.add(importDeclaration.getNameAsString());
+            } else {
+                this.names.add(importDeclaration.getNameAsString());
+            }
+        }
+    }
+
+    /**
+     * Description: Retrieves the import manager of the given file, creating it on first use
+     *
+     * @param compUnit the file
+     * @return the import manager of the file
+     */
+    public static ImportManager of(CompilationUnit compUnit) {
+        if (compUnit.containsData(KEY)) {
+            return compUnit.getData(KEY);
+        }
+        ImportManager manager = new ImportManager(compUnit);
+        compUnit.setData(KEY, manager);
+        return manager;
+    }
+
+    /**
+     * Description: Retrieves the import manager of the file the node belongs to
+     *
+     * @param node a node of the file
+     * @return the import manager of the file, null if the node does not belong to a file
+     */
+    public static ImportManager of(Node node) {
+        Optional<CompilationUnit> compUnit = node.findCompilationUnit();
+        return compUnit.isPresent() ? of(compUnit.get()) : null;
+    }
+
+    /**
+     * Description: Queues an import of the given class if the file does not already import it. Classes in java.lang
+     * and primitive types are never imported.
+     *
+     * @param clazz the class to import
+     */
+    public void add(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive() || clazz.getPackage() == null || "java.lang".equals(clazz.getPackage().getName())) {
+            return;
+        }
+        add(clazz.isMemberClass() ? clazz.getCanonicalName() : clazz.getName());
+    }
+
+    /**
+     * Description: Queues an import of the given fully qualified class name if the file does not already import it
+     *
+     * @param name the fully qualified name of the class to import
+     */
+    public void add(String name) {
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot > 0 && this.wildcardPackages.contains(name.substring(0, lastDot))) {//imported with a wildcard
+            return;
+        }
+        this.toRemove.remove(name);
+        if (this.names.add(name)) {
+            this.toAdd.add(name);
+        }
+    }
+
+    /**
+     * Description: Queues the removal of the import of the given fully qualified class name. The import is only removed
+     * if the class is no longer used anywhere in the file when the queued changes are applied.
+     *
+     * @param name the fully qualified name of the class to stop importing
+     */
+    public void removeIfUnused(String name) {
+        if (this.names.contains(name) && !this.toAdd.contains(name)) {
+            this.toRemove.add(name);
+        }
+    }
+
+    /**
+     * Description: Checks whether the file imports, or will import, the given class by its fully qualified name
+     *
+     * @param name the fully qualified name of the class
+     * @return true if the class is imported
+     */
+    public boolean isImported(String name) {
+        return this.names.contains(name) && !this.toRemove.contains(name);
+    }
+
+    /**
+     * Description: Applies the queued imports to the file. Imports are added in the order they were queued, after the
+     * existing imports.
+     */
+    public void apply() {
+        NodeList<ImportDeclaration> imports = this.compUnit.getImports();
+        if (!this.toRemove.isEmpty()) {
+            Set<String> used = findUsedNames();
+            List<ImportDeclaration> unused = new ArrayList<>();
+            for (ImportDeclaration importDeclaration : imports) {
+                String name = importDeclaration.getNameAsString();
+                if (!importDeclaration.isStatic() && !importDeclaration.isAsterisk() && this.toRemove.contains(name)
+                        && !used.contains(name.substring(name.lastIndexOf('.') + 1))) {//the class is no longer used
+                    unused.add(importDeclaration);
+                }
+            }
+            for (ImportDeclaration importDeclaration : unused) {
+                imports.remove(importDeclaration);
+                this.names.remove(importDeclaration.getNameAsString());
+            }
+            this.toRemove.clear();
+        }
+        for (String name : this.toAdd) {
+            imports.add(new ImportDeclaration(toName(name), false, false));
+        }
+        this.toAdd.clear();
+    }
+
+    /**
+     * Description: Applies the queued imports of the given file, if the file has an import manager
+     *
+     * @param compUnit the file
+     */
+    public static void apply(CompilationUnit compUnit) {
+        if (compUnit.containsData(KEY)) {
+            compUnit.getData(KEY).apply();
+        }
+    }
+
+    /**
+     * Description: Builds the name node of a fully qualified class name without running the parser
+     *
+     * @param qualifiedName the fully qualified class name
+     * @return the name node
+     */
+    private static Name toName(String qualifiedName) {
+        Name name = null;
+        for (String identifier : qualifiedName.split("\\.")) {
+            name = new Name(name, identifier);
+        }
+        return name;
+    }
+
+    /**
+     * Description: Finds the simple names used by the type declarations of the file (annotation names, type names, and
+     * other names). The import statements themselves are not searched.
+     *
+     * @return the simple names used in the file
+     */
+    private Set<String> findUsedNames() {
+        Set<String> results = new HashSet<>();
+        for (TypeDeclaration<?> type : this.compUnit.getTypes()) {
+            type.walk(node -> {
+                if (node instanceof Name) {
+                    results.add(((Name) node).getIdentifier());
+                } else if (node instanceof SimpleName) {
+                    results.add(((SimpleName) node).getIdentifier());
+                }
+            });
+        }
+        return results;
+    }
+}
@@ -0,0 +1,413 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Description: This class is a record of every file processed by a run, used to skip files that have not changed since
+ * the last run. For each file the manifest keeps the SHA-256 hash of its content after the run, its size and last
+ * modified time, the version of this tool that processed it (see toolVersion()), and whether it was a REST service, a
+ * DTO file, or neither.
+ * A file is unchanged if the tool version matches and either its size and last modified time match or its content
+ * hashes to the same value. The manifest also keeps the REST service -> DTO file and DTO file -> DTO file dependencies
+ * found by the last run, so that a change to a DTO file only reprocesses that DTO file and the files that reach it.
+ * The manifest is saved next to the source directory as [directory name].swagger-manifest
+ */
+
+public class IncrementalManifest {
+
+    private static final String VERSION_RESOURCE = "/swagger-automation.properties"; // holds the project version
+    private static final String[] GENERATOR_CLASSES = {"FilesToAnnotateFinder", "FileBuilder", "AnnotationEngine",
+            "AnnotationTarget", "AnnotationIndex", "AnnotationTemplates", "OperationGenerator", "ParameterGenerator",
+            "ApiResponseGenerator", "SchemaGetterGenerator", "SchemaLabel", "StatusCodeDescriptionPair",
+            "ImportManager", "LexicalPreservation", "DTOTypeCollector", "TypeResolver", "DTOGraph"};
+    //^classes whose code decides what is written to an annotated file
+
+    static final String TOOL_VERSION = toolVersion(); // files processed by another version or build are processed again
+
+    /**
+     * Description: The kind of file recorded in the manifest
+     */
+    public enum Kind {
+        RESOURCE, DTO, OTHER
+    }
+
+    /**
+     * Description: This class represents a single file recorded in the manifest
+     */
+    private static class Entry {
+        private Kind kind;
+        private long size;
+        private long lastModified;
+        private String hash;
+        private String version;
+
+        private Entry(Kind kind, long size, long lastModified, String hash, String version) {
+            this.kind = kind;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.version = version;
+        }
+    }
+
+    private File manifestFile; // the file the manifest is saved to
+    private Map<String, Entry> entries; // absolute path -> entry
+    private Map<String, Set<String>> dependencies; // absolute path -> absolute paths of the DTO files it depends on
+    private int filesUnchanged; // number of files found to be unchanged by this run
+
+    /**
+     * Description: Creates an empty manifest that is saved to the given file
+     *
+     * @param manifestFile the file to save the manifest to
+     */
+    public IncrementalManifest(File manifestFile) {
+        this.manifestFile = manifestFile;
+        this.entries = new HashMap<>();
+        this.dependencies = new HashMap<>();
+    }
+
+    /**
+     * Description: Retrieves the file the manifest of the given source directory is saved to, next to the directory
+     *
+     * @param sourceDirectory the source directory processed by the run
+     * @return the manifest file
+     */
+    public static File manifestFileOf(File sourceDirectory) {
+        File absolute = sourceDirectory.getAbsoluteFile();
+        return new File(absolute.getParentFile(), absolute.getName() + ".swagger-manifest");
+    }
+
+    /**
+     * Description: Loads the manifest of the given source directory. An empty manifest is returned if the source
+     * directory has not been processed before or if its manifest cannot be read.
+     *
+     * @param sourceDirectory the source directory processed by the run
+     * @return the manifest of the source directory
+     */
+    public static IncrementalManifest load(File sourceDirectory) {
+        File manifestFile = manifestFileOf(sourceDirectory);
+        IncrementalManifest manifest = new IncrementalManifest(manifestFile);
+        if (!manifestFile.isFile()) {
+            return manifest;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("EDGE\t")) {//a dependency: EDGE, path, path of the DTO file it depends on
+                    String[] fields = line.split("\t", 3);
+                    if (fields.length == 3) {
+                        manifest.addDependency(fields[1], fields[2]);
+                    }
+                    continue;
+                }
+                String[] fields = line.split("\t", 6);//kind, size, last modified, hash, version, path
+                if (fields.length == 6) {
+                    manifest.entries.put(fields[5], new Entry(Kind.valueOf(fields[0]), Long.parseLong(fields[1]),
+                            Long.parseLong(fields[2]), fields[3], fields[4]));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Manifest could not be read, processing every file: " + manifestFile);
+            manifest.entries.clear();
+            manifest.dependencies.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Description: Checks whether the file is unchanged since it was recorded by the last run
+     *
+     * @param file the file to check
+     * @return true if the file does not need to be processed again
+     */
+    public boolean isUnchanged(File file) {
+        String path = file.getAbsolutePath();
+        Entry entry = this.entries.get(path);
+        if (entry == null || !TOOL_VERSION.equals(entry.version)) {
+            return false;
+        }
+        long size = file.length();
+        long lastModified = file.lastModified();
+        if (entry.size == size && entry.lastModified == lastModified) {//the file has not been touched
+            return true;
+        }
+        if (entry.size != size) {
+            return false;
+        }
+        String hash = hash(file);
+        if (hash != null && hash.equals(entry.hash)) {//the file was touched but its content is the same
+            entry.lastModified = lastModified;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Description: Removes the files that are unchanged since the last run from the given list
+     *
+     * @param files the files to check
+     * @return the files that were changed or added since the last run
+     */
+    public List<File> removeUnchanged(List<File> files) {
+        List<File> changed = new ArrayList<>();
+        for (File file : files) {
+            if (isUnchanged(file)) {
+                this.filesUnchanged++;
+            } else {
+                changed.add(file);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Description: Finds the files of the given kind that were recorded by the last run and have changed since. This
+     * finds changed DTO files that are outside of the directories being searched for REST services.
+     *
+     * @param kind the kind of file to check
+     * @return the recorded files of the given kind that have changed
+     */
+    public List<File> findChanged(Kind kind) {
+        List<File> changed = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+            File file = new File(entry.getKey());
+            if (entry.getValue().kind == kind && file.exists() && !isUnchanged(file)) {
+                changed.add(file);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Description: Computes the files that need to be processed again given the files that changed. These are the
+     * changed files themselves and every REST service or DTO file whose dependencies (direct or transitive) include a
+     * changed file, according to the dependencies recorded by the last run.
+     *
+     * @param changed the files that changed
+     * @return the changed files and the files that depend on them
+     */
+    public Set<File> filesToReprocess(Collection<File> changed) {
+        Map<String, List<String>> dependents = new HashMap<>();//reversing the dependencies
+        for (Map.Entry<String, Set<String>> entry : this.dependencies.entrySet()) {
+            for (String dependency : entry.getValue()) {
+                List<String> list = dependents.get(dependency);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    dependents.put(dependency, list);
+                }
+                list.add(entry.getKey());
+            }
+        }
+
+        Set<String> seen = new LinkedHashSet<>();
+        Deque<String> toVisit = new ArrayDeque<>();
+        for (File file : changed) {
+            if (seen.add(file.getAbsolutePath())) {
+                toVisit.push(file.getAbsolutePath());
+            }
+        }
+        while (!toVisit.isEmpty()) {//walking the reversed dependencies from each changed file
+            List<String> list = dependents.get(toVisit.pop());
+            if (list != null) {
+                for (String dependent : list) {
+                    if (seen.add(dependent)) {
+                        toVisit.push(dependent);
+                    }
+                }
+            }
+        }
+
+        Set<File> results = new LinkedHashSet<>();
+        for (String path : seen) {
+            results.add(new File(path));
+        }
+        return results;
+    }
+
+    /**
+     * Description: Replaces the recorded dependencies of the given file
+     *
+     * @param file         the REST service or DTO file
+     * @param dependencies the DTO files it depends on
+     */
+    public void recordDependencies(File file, Collection<File> dependencies) {
+        Set<String> paths = new LinkedHashSet<>();
+        for (File dependency : dependencies) {
+            paths.add(dependency.getAbsolutePath());
+        }
+        this.dependencies.put(file.getAbsolutePath(), paths);
+    }
+
+    /**
+     * Description: Adds a single recorded dependency
+     *
+     * @param path       the path of the REST service or DTO file
+     * @param dependency the path of the DTO file it depends on
+     */
+    private void addDependency(String path, String dependency) {
+        Set<String> paths = this.dependencies.get(path);
+        if (paths == null) {
+            paths = new LinkedHashSet<>();
+            this.dependencies.put(path, paths);
+        }
+        paths.add(dependency);
+    }
+
+    /**
+     * Description: Retrieves the kind of file the last run recorded for the given file
+     *
+     * @param file the file to look up
+     * @return the kind of file, null if the file was not recorded
+     */
+    public Kind getKind(File file) {
+        Entry entry = this.entries.get(file.getAbsolutePath());
+        return entry == null ? null : entry.kind;
+    }
+
+    /**
+     * Description: Records the current content of the file. This should be called after the file has been written.
+     *
+     * @param file the file to record
+     * @param kind the kind of file
+     */
+    public void record(File file, Kind kind) {
+        String hash = hash(file);
+        if (hash == null) {//the file cannot be read, so it will be processed again next run
+            this.entries.remove(file.getAbsolutePath());
+            return;
+        }
+        this.entries.put(file.getAbsolutePath(), new Entry(kind, file.length(), file.lastModified(), hash, TOOL_VERSION));
+    }
+
+    /**
+     * Description: Saves the manifest. Files that no longer exist are dropped. The manifest is written to a temporary
+     * file first and then moved into place so that an interrupted run does not leave a partial manifest.
+     *
+     * @throws IOException if the manifest cannot be saved
+     */
+    public void save() throws IOException {
+        File temp = new File(this.manifestFile.getPath() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> mapEntry : this.entries.entrySet()) {
+                if (!new File(mapEntry.getKey()).exists()) {
+                    continue;
+                }
+                Entry entry = mapEntry.getValue();
+                writer.write(entry.kind + "\t" + entry.size + "\t" + entry.lastModified + "\t" + entry.hash + "\t"
+                        + entry.version + "\t" + mapEntry.getKey());
+                writer.newLine();
+            }
+            for (Map.Entry<String, Set<String>> dependency : this.dependencies.entrySet()) {
+                if (!new File(dependency.getKey()).exists()) {
+                    continue;
+                }
+                for (String path : dependency.getValue()) {
+                    writer.write("EDGE\t" + dependency.getKey() + "\t" + path);
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(temp.toPath(), this.manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of unchanged files found by removeUnchanged()
+     *
+     * @return the number of unchanged files
+     */
+    public int getFilesUnchanged() {
+        return this.filesUnchanged;
+    }
+
+    /**
+     * Description: Builds the version recorded for every file: the project version (filtered into
+     * swagger-automation.properties by maven) followed by a hash of the class files of the annotation code. The hash
+     * changes whenever the tool is rebuilt with different annotation code, so upgrading or patching the tool (even
+     * without changing the project version) processes every file again.
+     *
+     * @return the tool version, ex. 1.0-SNAPSHOT+3fa2c1d04b7e
+     */
+    static String toolVersion() {
+        String version = "unknown";
+        try (InputStream in = IncrementalManifest.class.getResourceAsStream(VERSION_RESOURCE)) {
+            if (in != null) {
+                Properties properties = new Properties();
+                properties.load(in);
+                String filtered = properties.getProperty("version", version);
+                if (!filtered.startsWith("${")) {//not filtered when run from the sources
+                    version = filtered;
+                }
+            }
+        } catch (IOException e) {//the hash alone still tells builds apart
+        }
+
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        for (String name : GENERATOR_CLASSES) {
+            try (InputStream in = IncrementalManifest.class.getResourceAsStream("/" + name + ".class")) {
+                if (in == null) {
+                    continue;
+                }
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return version + "+" + toHex(digest.digest()).substring(0, 12);
+    }
+
+    /**
+     * Description: Computes the SHA-256 hash of the file's content
+     *
+     * @param file the file to hash
+     * @return the hash as a hex string, null if the file cannot be read
+     */
+    static String hash(File file) {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Description: Computes the SHA-256 hash of the given content, in the same form as hash(File)
+     *
+     * @param bytes the content to hash
+     * @return the hash as a hex string
+     */
+    static String hash(byte[] bytes) {
+        return toHex(newDigest().digest(bytes));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);//every java platform supports SHA-256
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
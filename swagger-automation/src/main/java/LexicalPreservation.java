@@ -0,0 +1,113 @@
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: This class sets up lexical preservation only on the files that are going to be modified. Files are
+ * analyzed on a plain parse first. Lexical preservation attaches the text of every node to the abstract syntax tree,
+ * which is only needed to print a modified file, so files that are not modified are never set up. The number of files
+ * that were spared is kept, along with their nodes and tokens when a run report is written, so that the memory saved
+ * by a run can be reported. Counting nodes and tokens walks the whole file, so it is not done otherwise. Since parsed
+ * files can be shared through the CompilationUnitCache, a file is only ever set up once.
+ */
+
+public class LexicalPreservation {
+
+    private static final long BYTES_PER_NODE = 64; // estimated size of a node's NodeText and its list of elements
+    private static final long BYTES_PER_TOKEN = 32; // estimated size of a token's TokenTextElement and its list slot
+
+    private static final DataKey<Boolean> SET_UP = new DataKey<Boolean>() {
+    }; // marks a file already set up with lexical preservation
+
+    private static AtomicLong filesSetUp = new AtomicLong(); // files set up with lexical preservation
+    private static AtomicLong filesSkipped = new AtomicLong(); // files that were not modified, so never set up
+    private static AtomicLong nodesSkipped = new AtomicLong(); // nodes in the files that were never set up
+    private static AtomicLong tokensSkipped = new AtomicLong(); // tokens in the files that were never set up
+
+    private LexicalPreservation() {
+
+    }
+
+    /**
+     * Description: Sets up lexical preservation on a file that is about to be modified. This must be called before the
+     * first modification.
+     *
+     * @param compUnit the abstract syntax tree of the file
+     */
+    public static void setup(LexicalPreservingPrinter lex, CompilationUnit compUnit) {
+        if (compUnit.containsData(SET_UP)) {//setting up twice would register a second observer on every node
+            return;
+        }
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.LEXICAL_SETUP)) {
+            lex.setup(compUnit);
+        }
+        compUnit.setData(SET_UP, true);
+        filesSetUp.incrementAndGet();
+    }
+
+    /**
+     * Description: Records a file that will not be modified, so it is never set up with lexical preservation. Its
+     * nodes and tokens are only counted when a run report is written.
+     *
+     * @param compUnit the abstract syntax tree of the file
+     */
+    public static void skip(CompilationUnit compUnit) {
+        filesSkipped.incrementAndGet();
+        if (!RunReport.isEnabled()) {//the estimate is not worth a walk of every unmodified file
+            return;
+        }
+        final long[] nodes = {0};
+        compUnit.walk(node -> nodes[0]++);
+        long tokens = 0;
+        Optional<TokenRange> range = compUnit.getTokenRange();
+        if (range.isPresent()) {
+            for (JavaToken ignored : range.get()) {
+                tokens++;
+            }
+        }
+        nodesSkipped.addAndGet(nodes[0]);
+        tokensSkipped.addAndGet(tokens);
+        RunReport.count("lexicalNodesSkipped", nodes[0]);
+        RunReport.count("lexicalTokensSkipped", tokens);
+    }
+
+    /**
+     * Description: Returns the estimated number of bytes of lexical preservation data that were not created because
+     * files were not modified, 0 unless a run report is written
+     *
+     * @return the estimated number of bytes saved
+     */
+    public static long getEstimatedBytesSaved() {
+        return nodesSkipped.get() * BYTES_PER_NODE + tokensSkipped.get() * BYTES_PER_TOKEN;
+    }
+
+    /**
+     * Description: Creates a one line summary of the files set up and the memory saved
+     *
+     * @return the summary
+     */
+    public static String summary() {
+        String summary = "Lexical preservation set up on " + filesSetUp.get() + " files, skipped on "
+                + filesSkipped.get() + " unmodified files";
+        if (!RunReport.isEnabled()) {//the nodes and tokens were not counted
+            return summary + ".";
+        }
+        return summary + " (" + nodesSkipped.get() + " nodes, " + tokensSkipped.get() + " tokens, ~"
+                + getEstimatedBytesSaved() / 1024 + " KB saved).";
+    }
+
+    /**
+     * Description: Resets the counters, for use at the start of a run
+     */
+    public static void reset() {
+        filesSetUp.set(0);
+        filesSkipped.set(0);
+        nodesSkipped.set(0);
+        tokensSkipped.set(0);
+    }
+}
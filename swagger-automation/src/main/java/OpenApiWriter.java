@@ -0,0 +1,938 @@
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+
+/**
+ * Description: This class writes an OpenAPI 3 document describing the REST services, instead of adding swagger
+ * annotations to their source files. The descriptions come from the same places the annotations get them from: the
+ * JavaDoc comment of each method for the operation and its parameters, the enunciate @StatusCodes of each method for
+ * its responses, and the getters of each DTO file for its schema. Swagger annotations a method already has are used
+ * first. Each REST service file is documented by the worker thread that parsed it, into a buffer holding its paths, so
+ * only the files being documented are in memory as abstract syntax trees. The buffers are handed over in file order
+ * as soon as the files before them are done, so the document is the same on any number of threads. Their operations
+ * are kept in a temporary file until the end, so that files declaring the same path add their operations to a single
+ * path item. DTO files are only remembered by path until their schemas are written at the end, each parsed and
+ * released in turn. Files ending in .yaml or .yml are written as YAML.
+ */
+
+public class OpenApiWriter implements Closeable {
+
+    static final String OPENAPI_VERSION = "3.0.1"; // version of the OpenAPI specification written
+    private static final String DEFAULT_MEDIA_TYPE = "application/json"; // used without @Produces or @Consumes
+    private static final List<String> HTTP_METHODS = Arrays.asList(
+            "GET", "PUT", "POST", "DELETE", "OPTIONS", "HEAD", "PATCH"); // JAX-RS annotations of the HTTP methods
+    private static final Map<String, String> PARAMETER_LOCATIONS = new HashMap<>(); // JAX-RS annotation -> "in"
+    private static final Set<String> COLLECTIONS = new HashSet<>(Arrays.asList("Collection", "List", "Set",
+            "Iterable", "ArrayList", "LinkedList", "HashSet", "LinkedHashSet", "TreeSet", "SortedSet")); // arrays
+    private static final Set<String> MAPS = new HashSet<>(Arrays.asList(
+            "Map", "HashMap", "LinkedHashMap", "TreeMap", "SortedMap")); // objects keyed by string
+    private static final Map<String, String[]> SIMPLE_TYPES = new HashMap<>(); // java type -> OpenAPI type, format
+    private static final JsonFactory BUFFERS = new JsonFactory(); // writes and reads the buffered paths and schemas
+    private static final String SCHEMAS = "#/components/schemas/"; // where a reference to a DTO schema points
+
+    static {
+        PARAMETER_LOCATIONS.put("PathParam", "path");
+        PARAMETER_LOCATIONS.put("QueryParam", "query");
+        PARAMETER_LOCATIONS.put("HeaderParam", "header");
+        PARAMETER_LOCATIONS.put("CookieParam", "cookie");
+
+        for (String type : new String[]{"int", "Integer", "short", "Short", "byte", "Byte"}) {
+            SIMPLE_TYPES.put(type, new String[]{"integer", "int32"});
+        }
+        for (String type : new String[]{"long", "Long"}) {
+            SIMPLE_TYPES.put(type, new String[]{"integer", "int64"});
+        }
+        for (String type : new String[]{"float", "Float"}) {
+            SIMPLE_TYPES.put(type, new String[]{"number", "float"});
+        }
+        for (String type : new String[]{"double", "Double"}) {
+            SIMPLE_TYPES.put(type, new String[]{"number", "double"});
+        }
+        for (String type : new String[]{"boolean", "Boolean"}) {
+            SIMPLE_TYPES.put(type, new String[]{"boolean", null});
+        }
+        for (String type : new String[]{"char", "Character", "String"}) {
+            SIMPLE_TYPES.put(type, new String[]{"string", null});
+        }
+        for (String type : new String[]{"Date", "Timestamp", "Instant", "LocalDateTime", "OffsetDateTime",
+                "ZonedDateTime"}) {
+            SIMPLE_TYPES.put(type, new String[]{"string", "date-time"});
+        }
+        SIMPLE_TYPES.put("LocalDate", new String[]{"string", "date"});
+        SIMPLE_TYPES.put("UUID", new String[]{"string", "uuid"});
+        SIMPLE_TYPES.put("BigDecimal", new String[]{"number", null});
+        SIMPLE_TYPES.put("BigInteger", new String[]{"integer", null});
+    }
+
+    private JsonGenerator json; // writes the document as it is built
+    private FilesToAnnotateFinder finder; // resolves DTO names to files and builds the descriptions of getters
+    private FileBuilder builder; // reads descriptions out of JavaDoc comments and @ResponseCode annotations
+    private File spillFile; // temporary file holding the operations of each path until finish() writes them
+    private RandomAccessFile spill; // writes and reads the spill file
+    private Map<String, List<Segment>> paths; // path -> where the operations of each file declaring it were spilled
+    private Set<String> operationsWritten; // path and HTTP method of every operation spilled
+    private Map<String, String> schemas; // key of a DTO object -> name of its schema
+    private Set<String> schemaNames; // names given to schemas so far
+    private Deque<Reference> schemasToWrite; // DTO objects referred to whose schemas are not written yet
+    private List<String> duplicateOperations; // operations skipped because they were already documented
+    private int resourcesWritten; // REST service files documented
+    private int schemasWritten; // schemas written
+
+    /**
+     * Description: A resource method, found while grouping the methods of a file by path
+     */
+    private static class Endpoint {
+        private String httpMethod; // GET, POST, etc.
+        private MethodDeclaration method; // the resource method
+        private ClassOrInterfaceDeclaration resource; // the class declaring the method
+
+        private Endpoint(String httpMethod, MethodDeclaration method, ClassOrInterfaceDeclaration resource) {
+            this.httpMethod = httpMethod;
+            this.method = method;
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * Description: A DTO object referred to by a schema, with the file declaring it
+     */
+    private static class Reference {
+        private String name; // the simple name of the DTO object (the name of its schema unless taken)
+        private File file; // the file declaring the DTO object, null if it was not found
+
+        private Reference(String name, File file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        /**
+         * Description: Identifies the DTO object: two DTO objects with the same simple name are different objects if
+         * different files declare them. Names that were not found are told apart by their simple name only.
+         *
+         * @return the file declaring the DTO object and its simple name
+         */
+        private String key() {
+            return (this.file == null ? "" : this.file.getPath()) + "#" + this.name;
+        }
+    }
+
+    /**
+     * Description: Where the schemas are written: a buffer, and the DTO objects referred to so far. Each reference is
+     * written with the simple name of the DTO object, and pointed at the name of its schema by copy().
+     */
+    private static class Output {
+        private JsonGenerator json; // writes the schemas to the buffer
+        private List<Reference> references = new ArrayList<>(); // DTO objects referred to, in order
+        private Map<String, File> resolved = new HashMap<>(); // class name -> file declaring it, in this file
+
+        private Output(ByteArrayOutputStream buffer) throws IOException {
+            this.json = BUFFERS.createGenerator(buffer, JsonEncoding.UTF8);
+        }
+    }
+
+    /**
+     * Description: The place in the spill file of the operations a single file declares on a path
+     */
+    private static class Segment {
+        private long offset; // where the operations start
+        private int length; // the number of bytes they take
+
+        private Segment(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Description: The paths of a REST service file, written to a buffer by document() and added to the document by
+     * writeResource()
+     */
+    public static class ResourcePaths {
+        private File file; // the REST service file
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(); // an object holding the path items
+        private Map<String, List<Reference>> references = new HashMap<>(); // path and HTTP method -> DTO objects
+        private Map<String, List<String>> duplicateOperations = new HashMap<>(); // path -> operations skipped on it
+
+        private ResourcePaths(File file) {
+            this.file = file;
+        }
+
+        public File getFile() {
+            return this.file;
+        }
+    }
+
+    /**
+     * Description: Creates the document and writes everything that comes before the paths
+     *
+     * @param file   the file to write the document to, written as YAML if it ends in .yaml or .yml
+     * @param title  the title of the API
+     * @param finder the finder used to resolve DTO names to files
+     * @throws IOException if the file cannot be written
+     */
+    public OpenApiWriter(File file, String title, FilesToAnnotateFinder finder) throws IOException {
+        String name = file.getName().toLowerCase();
+        JsonFactory factory = name.endsWith(".yaml") || name.endsWith(".yml") ? new YAMLFactory() : new JsonFactory();
+        this.json = factory.createGenerator(file, JsonEncoding.UTF8);
+        this.json.useDefaultPrettyPrinter();
+        this.finder = finder;
+        this.builder = new FileBuilder(new HashSet<>(), new ArrayList<>());
+        this.spillFile = File.createTempFile("openapi", ".paths");
+        this.spill = new RandomAccessFile(this.spillFile, "rw");
+        this.paths = new LinkedHashMap<>();
+        this.operationsWritten = new HashSet<>();
+        this.schemas = new HashMap<>();
+        this.schemaNames = new HashSet<>();
+        this.schemasToWrite = new ArrayDeque<>();
+        this.duplicateOperations = new ArrayList<>();
+
+        this.json.writeStartObject();
+        this.json.writeStringField("openapi", OPENAPI_VERSION);
+        this.json.writeObjectFieldStart("info");
+        this.json.writeStringField("title", title);
+        this.json.writeStringField("version", "1.0");
+        this.json.writeEndObject();
+        this.json.writeObjectFieldStart("paths");
+    }
+
+    /**
+     * Description: Documents the operations of a REST service file into a buffer, without touching the document.
+     * Called from several worker threads, each on its own file. A second method serving the same HTTP method on a
+     * path is skipped and reported by summary().
+     *
+     * @param tree the REST service file
+     * @return the paths of the file, to be handed to writeResource()
+     * @throws IOException if the buffer cannot be written
+     */
+    public ResourcePaths document(AbstractSyntaxTree tree) throws IOException {
+        CompilationUnit compUnit = tree.getAbstractSyntaxTree();
+        Map<String, List<Endpoint>> endpoints = new LinkedHashMap<>(); // path -> the methods serving it
+        for (ClassOrInterfaceDeclaration resource : compUnit.findAll(ClassOrInterfaceDeclaration.class)) {
+            String basePath = valueOf(resource.getAnnotationByName("Path"), "value").orElse("");
+            for (MethodDeclaration method : resource.getMethods()) {
+                String httpMethod = httpMethodOf(method);
+                if (httpMethod == null) {//not a resource method, or a sub-resource locator
+                    continue;
+                }
+                String path = joinPaths(basePath, valueOf(method.getAnnotationByName("Path"), "value").orElse(""));
+                endpoints.computeIfAbsent(path, key -> new ArrayList<>())
+                        .add(new Endpoint(httpMethod, method, resource));
+            }
+        }
+
+        ResourcePaths paths = new ResourcePaths(tree.getFile());
+        Output out = new Output(paths.buffer);
+        out.json.writeStartObject();
+        for (Map.Entry<String, List<Endpoint>> path : endpoints.entrySet()) {
+            out.json.writeObjectFieldStart(path.getKey());
+            Set<String> httpMethods = new HashSet<>();
+            for (Endpoint endpoint : path.getValue()) {
+                if (httpMethods.add(endpoint.httpMethod)) {//a path serves each HTTP method once
+                    out.references = new ArrayList<>();//only written if an earlier file does not document it
+                    paths.references.put(path.getKey() + " " + endpoint.httpMethod.toLowerCase(), out.references);
+                    writeOperation(out, endpoint, compUnit);
+                } else {
+                    paths.duplicateOperations.computeIfAbsent(path.getKey(), key -> new ArrayList<>())
+                            .add(endpoint.httpMethod + " " + path.getKey() + " in "
+                            + tree.getFile().getPath() + " (" + endpoint.method.getNameAsString() + ")");
+                }
+            }
+            out.json.writeEndObject();
+        }
+        out.json.writeEndObject();
+        out.json.close();
+        return paths;
+    }
+
+    /**
+     * Description: Adds the operations of a REST service file to the document. Files are expected in the order they
+     * were searched in, so the first file documenting an operation is the one kept. The operations are spilled to a
+     * temporary file, and finish() writes every path item with the operations of all the files declaring the path. An
+     * operation already documented by another file is skipped and reported by summary().
+     *
+     * @param paths the paths documented by document()
+     * @throws IOException if the operations cannot be spilled
+     */
+    public synchronized void writeResource(ResourcePaths paths) throws IOException {
+        try (JsonParser parser = BUFFERS.createParser(paths.buffer.toByteArray())) {
+            parser.nextToken();//the object holding the path items
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String path = parser.getCurrentName();
+                parser.nextToken();//the path item
+                ByteArrayOutputStream operations = new ByteArrayOutputStream(); // the operations kept, until spilled
+                int kept = 0;
+                try (JsonGenerator json = BUFFERS.createGenerator(operations)) {
+                    json.writeStartObject();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String httpMethod = parser.getCurrentName();
+                        parser.nextToken();//the operation
+                        if (!this.operationsWritten.add(path + " " + httpMethod)) {
+                            this.duplicateOperations.add(httpMethod.toUpperCase() + " " + path + " in "
+                                    + paths.file.getPath());
+                            parser.skipChildren();
+                            continue;
+                        }
+                        List<Reference> references = paths.references.get(path + " " + httpMethod);
+                        json.writeFieldName(httpMethod);
+                        refer(references);
+                        copy(json, parser, references);
+                        kept++;
+                    }
+                    json.writeEndObject();
+                }
+                if (kept > 0) {
+                    this.paths.computeIfAbsent(path, key -> new ArrayList<>())
+                            .add(new Segment(this.spill.getFilePointer(), operations.size()));
+                    this.spill.write(operations.toByteArray());
+                }
+                this.duplicateOperations.addAll(paths.duplicateOperations.getOrDefault(path, Collections.emptyList()));
+            }
+        }
+        this.resourcesWritten++;
+    }
+
+    /**
+     * Description: Copies the object the parser is on to the document, pointing each reference to a DTO schema at the
+     * name refer() gave the schema
+     *
+     * @param json       where the object is copied to
+     * @param parser     the parser, on the start of the object
+     * @param references the DTO objects referred to in the object, in the order they were written
+     * @throws IOException if the object cannot be written
+     */
+    private void copy(JsonGenerator json, JsonParser parser, List<Reference> references) throws IOException {
+        Iterator<Reference> reference = references.iterator();
+        int depth = 0;
+        do {
+            JsonToken token = parser.getCurrentToken();
+            if (token == JsonToken.FIELD_NAME && parser.getCurrentName().equals("$ref")) {
+                parser.nextToken();//written with the simple name of the DTO object
+                json.writeStringField("$ref", SCHEMAS + this.schemas.get(reference.next().key()));
+                continue;
+            }
+            json.copyCurrentEvent(parser);
+            depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+        } while (depth > 0 && parser.nextToken() != null);
+    }
+
+    /**
+     * Description: Writes every path item, in the order the paths were first documented, then the schema of every DTO
+     * file referred to, and ends the document. DTO files referred to by other DTO files are written as they are found.
+     *
+     * @throws IOException if the document cannot be written
+     */
+    public synchronized void finish() throws IOException {
+        for (Map.Entry<String, List<Segment>> path : this.paths.entrySet()) {
+            this.json.writeObjectFieldStart(path.getKey());
+            for (Segment segment : path.getValue()) {//the operations of each file declaring the path
+                byte[] operations = new byte[segment.length];
+                this.spill.seek(segment.offset);
+                this.spill.readFully(operations);
+                try (JsonParser parser = BUFFERS.createParser(operations)) {
+                    parser.nextToken();//the object holding the operations
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        this.json.copyCurrentEvent(parser);
+                        parser.nextToken();
+                        this.json.copyCurrentStructure(parser);
+                    }
+                }
+            }
+            this.json.writeEndObject();
+        }
+        this.json.writeEndObject();//paths
+        this.json.writeObjectFieldStart("components");
+        this.json.writeObjectFieldStart("schemas");
+        JavaParser parser = new JavaParser();
+        while (!this.schemasToWrite.isEmpty()) {
+            writeDTOSchema(this.schemasToWrite.poll(), parser);
+        }
+        this.json.writeEndObject();
+        this.json.writeEndObject();
+        this.json.writeEndObject();
+        this.json.flush();
+    }
+
+    /**
+     * Description: Writes a single operation: its description from the method's JavaDoc comment, its parameters, and
+     * its responses
+     *
+     * @param out      where the operation is written
+     * @param endpoint the resource method
+     * @param compUnit the file declaring the method
+     * @throws IOException if the document cannot be written
+     */
+    private void writeOperation(Output out, Endpoint endpoint, CompilationUnit compUnit) throws IOException {
+        MethodDeclaration method = endpoint.method;
+        Comment comment = AnnotationEngine.commentOf(method);
+        Optional<AnnotationExpr> operation = method.getAnnotationByName("Operation");
+        String description = comment != null ? this.builder.getDescription(comment.getContent())
+                : "TODO: Add Description here.";
+
+        out.json.writeObjectFieldStart(endpoint.httpMethod.toLowerCase());
+        out.json.writeArrayFieldStart("tags");
+        out.json.writeString(endpoint.resource.getNameAsString());
+        out.json.writeEndArray();
+        out.json.writeStringField("summary", valueOf(operation, "summary").orElse(method.getNameAsString()));
+        out.json.writeStringField("description", valueOf(operation, "description").orElse(description));
+        out.json.writeStringField("operationId", endpoint.resource.getNameAsString() + "_" + method.getNameAsString());
+        writeParameters(out, endpoint, compUnit, comment);
+        writeResponses(out, endpoint, compUnit);
+        out.json.writeEndObject();
+    }
+
+    /**
+     * Description: Writes the path, query, header, and cookie parameters of a resource method, and its request body
+     * if it has a parameter without a JAX-RS annotation. Descriptions come from the @param tags of the method's
+     * JavaDoc comment, matched by position as the @Parameter annotations are. @Context parameters are skipped.
+     *
+     * @param out      where the parameters are written
+     * @param endpoint the resource method
+     * @param compUnit the file declaring the method
+     * @param comment  the method's comment, null if it has none
+     * @throws IOException if the document cannot be written
+     */
+    private void writeParameters(Output out, Endpoint endpoint, CompilationUnit compUnit, Comment comment)
+            throws IOException {
+        List<Parameter> parameters = endpoint.method.getParameters();
+        List<String> descriptions = new AnnotationTarget(compUnit, endpoint.method, comment, parameters,
+                new AnnotationIndex(endpoint.method.getAnnotations())).getParameterDescriptions();
+        Parameter body = null; // the parameter holding the request entity
+        String bodyDescription = null; // description of the request entity
+        boolean started = false;
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter parameter = parameters.get(i);
+            if (parameter.isAnnotationPresent("Context") || parameter.isAnnotationPresent("FormParam")
+                    || parameter.isAnnotationPresent("BeanParam") || parameter.isAnnotationPresent("MatrixParam")) {
+                continue;//not documented
+            }
+            String description = valueOf(parameter.getAnnotationByName("Parameter"), "description")
+                    .orElse(descriptions != null && i < descriptions.size() ? clean(descriptions.get(i))
+                            : "TODO: Add parameter description");
+            String location = null;
+            String name = parameter.getNameAsString();
+            for (Map.Entry<String, String> entry : PARAMETER_LOCATIONS.entrySet()) {
+                Optional<AnnotationExpr> annotation = parameter.getAnnotationByName(entry.getKey());
+                if (annotation.isPresent()) {
+                    location = entry.getValue();
+                    name = valueOf(annotation, "value").orElse(name);
+                }
+            }
+            if (location == null) {//the request entity
+                body = parameter;
+                bodyDescription = description;
+                continue;
+            }
+
+            if (!started) {
+                out.json.writeArrayFieldStart("parameters");
+                started = true;
+            }
+            out.json.writeStartObject();
+            out.json.writeStringField("name", name);
+            out.json.writeStringField("in", location);
+            out.json.writeStringField("description", description);
+            if (location.equals("path")) {
+                out.json.writeBooleanField("required", true);
+            }
+            out.json.writeFieldName("schema");
+            writeSchema(out, parameter.getType(), compUnit, null);
+            out.json.writeEndObject();
+        }
+        if (started) {
+            out.json.writeEndArray();
+        }
+
+        if (body != null) {
+            out.json.writeObjectFieldStart("requestBody");
+            out.json.writeStringField("description", bodyDescription);
+            out.json.writeBooleanField("required", true);
+            writeContent(out, mediaTypesOf(endpoint, "Consumes"), body.getType(), compUnit);
+            out.json.writeEndObject();
+        }
+    }
+
+    /**
+     * Description: Writes the responses of a resource method from its @StatusCodes and @Warnings annotations, or from
+     * its @ApiResponse annotations if it already has them. The returned entity is documented on the first successful
+     * response, or on the default response if there is none. A method without status codes gets a TODO default
+     * response, as it would get a TODO @ApiResponse.
+     *
+     * @param out      where the responses are written
+     * @param endpoint the resource method
+     * @param compUnit the file declaring the method
+     * @throws IOException if the document cannot be written
+     */
+    private void writeResponses(Output out, Endpoint endpoint, CompilationUnit compUnit) throws IOException {
+        Map<String, String> responses = new LinkedHashMap<>(); // status code -> description
+        Map<String, String> apiResponses = new LinkedHashMap<>(); // status code -> description, from @ApiResponse
+        for (AnnotationExpr annotation : endpoint.method.getAnnotations()) {
+            String name = annotation.getNameAsString();
+            if (name.equals("StatusCodes") || name.equals("Warnings")) {
+                for (NormalAnnotationExpr code : annotation.findAll(NormalAnnotationExpr.class)) {
+                    if (code.getNameAsString().equals("ResponseCode") && code.getPairs().size() >= 2) {
+                        Map.Entry<Integer, String> pair = this.builder.getCodeDescriptionPair(
+                                code.getPairs().get(0).toString(), code.getPairs().get(1).toString());
+                        if (pair != null) {
+                            responses.merge(String.valueOf(pair.getKey()), pair.getValue().trim(),
+                                    (first, second) -> first + " " + second);//one response per status code
+                        }
+                    }
+                }
+            } else if (name.equals("ApiResponse") || name.equals("ApiResponses")) {
+                for (AnnotationExpr response : annotation.findAll(AnnotationExpr.class)) {
+                    if (response.getNameAsString().equals("ApiResponse")) {
+                        Optional<AnnotationExpr> opt = Optional.of(response);
+                        apiResponses.merge(valueOf(opt, "responseCode").orElse("default"),
+                                valueOf(opt, "description").orElse(""), (first, second) -> first + " " + second);
+                    }
+                }
+            }
+        }
+        if (!apiResponses.isEmpty()) {//already annotated, the annotations may have been edited since
+            responses = apiResponses;
+        }
+        if (responses.isEmpty()) {
+            responses.put("default", "TODO: Add status codes and descriptions here.");
+        }
+
+        Type returnType = endpoint.method.getType();
+        boolean hasEntity = !returnType.isVoidType() && !returnType.asString().equals("Response");
+        String entityCode = null; // the response the returned entity is documented on
+        for (String code : responses.keySet()) {
+            if (entityCode == null && code.startsWith("2")) {
+                entityCode = code;
+            }
+        }
+        if (entityCode == null) {
+            entityCode = "default";
+        }
+
+        out.json.writeObjectFieldStart("responses");
+        for (Map.Entry<String, String> response : responses.entrySet()) {
+            out.json.writeObjectFieldStart(response.getKey());
+            out.json.writeStringField("description", response.getValue());
+            if (hasEntity && response.getKey().equals(entityCode)) {
+                writeContent(out, mediaTypesOf(endpoint, "Produces"), returnType, compUnit);
+            }
+            out.json.writeEndObject();
+        }
+        out.json.writeEndObject();
+    }
+
+    /**
+     * Description: Writes the content of a request or response: the schema of the entity for every media type
+     *
+     * @param out        where the content is written
+     * @param mediaTypes the media types of the entity
+     * @param type       the type of the entity
+     * @param compUnit   the file the type is used in
+     * @throws IOException if the document cannot be written
+     */
+    private void writeContent(Output out, List<String> mediaTypes, Type type, CompilationUnit compUnit)
+            throws IOException {
+        out.json.writeObjectFieldStart("content");
+        for (String mediaType : mediaTypes) {
+            out.json.writeObjectFieldStart(mediaType);
+            out.json.writeFieldName("schema");
+            writeSchema(out, type, compUnit, null);
+            out.json.writeEndObject();
+        }
+        out.json.writeEndObject();
+    }
+
+    /**
+     * Description: Writes the schema of a java type. DTO objects are written as a reference to their schema, which is
+     * written by finish().
+     *
+     * @param out         where the schema is written
+     * @param type        the java type
+     * @param compUnit    the file the type is used in, to resolve DTO names through its imports
+     * @param description the description of the schema, null for none
+     * @throws IOException if the document cannot be written
+     */
+    private void writeSchema(Output out, Type type, CompilationUnit compUnit, String description) throws IOException {
+        out.json.writeStartObject();
+        if (type instanceof ArrayType && ((ArrayType) type).getComponentType().asString().equals("byte")) {
+            out.json.writeStringField("type", "string");
+            out.json.writeStringField("format", "byte");
+        } else if (type instanceof ArrayType) {
+            out.json.writeStringField("type", "array");
+            out.json.writeFieldName("items");
+            writeSchema(out, ((ArrayType) type).getComponentType(), compUnit, null);
+        } else if (type instanceof ClassOrInterfaceType || type.isPrimitiveType()) {
+            String name = type instanceof ClassOrInterfaceType ? ((ClassOrInterfaceType) type).getNameAsString()
+                    : type.asString();
+            List<Type> arguments = type instanceof ClassOrInterfaceType
+                    ? ((ClassOrInterfaceType) type).getTypeArguments().map(ArrayList<Type>::new)
+                    .orElse(new ArrayList<>())
+                    : new ArrayList<>();
+            if (SIMPLE_TYPES.containsKey(name)) {
+                String[] simpleType = SIMPLE_TYPES.get(name);
+                out.json.writeStringField("type", simpleType[0]);
+                if (simpleType[1] != null) {
+                    out.json.writeStringField("format", simpleType[1]);
+                }
+            } else if (COLLECTIONS.contains(name)) {
+                out.json.writeStringField("type", "array");
+                out.json.writeFieldName("items");
+                writeSchema(out, arguments.isEmpty() ? new ClassOrInterfaceType(null, "Object") : arguments.get(0),
+                        compUnit, null);
+            } else if (MAPS.contains(name)) {
+                out.json.writeStringField("type", "object");
+                if (arguments.size() == 2) {
+                    out.json.writeFieldName("additionalProperties");
+                    writeSchema(out, arguments.get(1), compUnit, null);
+                }
+            } else if (name.equals("Optional") && arguments.size() == 1) {
+                out.json.writeEndObject();
+                writeSchema(out, arguments.get(0), compUnit, description);
+                return;
+            } else if (DTOTypeCollector.isDTOName(name)) {
+                out.json.writeStringField("$ref", SCHEMAS + name);
+                out.json.writeEndObject();//no other field may sit next to a reference
+                refer(out, name, ((ClassOrInterfaceType) type).getNameWithScope(), compUnit);
+                return;
+            } else {
+                out.json.writeStringField("type", "object");
+            }
+        } else {
+            out.json.writeStringField("type", "object");
+        }
+        if (description != null) {
+            out.json.writeStringField("description", description);
+        }
+        out.json.writeEndObject();
+    }
+
+    /**
+     * Description: Records a DTO object referred to by a schema being written, finding the file that declares it the
+     * first time the file being documented refers to it. Nothing shared is changed, since REST service files are
+     * documented on several worker threads.
+     *
+     * @param out       where the schema is being written
+     * @param name      the simple name of the DTO object
+     * @param className the name of the DTO object as used in the file
+     * @param compUnit  the file the DTO object is used in
+     */
+    private void refer(Output out, String name, String className, CompilationUnit compUnit) {
+        if (!out.resolved.containsKey(className)) {
+            Set<File> files = new HashSet<>();
+            this.finder.classNametoFile(className, compUnit, files);
+            out.resolved.put(className, files.isEmpty() ? null : files.iterator().next());
+        }
+        out.references.add(new Reference(name, out.resolved.get(className)));
+    }
+
+    /**
+     * Description: Records the DTO objects referred to by schemas about to be written to the document, so that
+     * finish() writes the schema of each one. A DTO object is given its simple name as the name of its schema, unless
+     * a different DTO object already has it. It is then named by its fully qualified name, or numbered if that is
+     * taken too.
+     *
+     * @param references the DTO objects referred to, in the order they were written
+     */
+    private void refer(List<Reference> references) {
+        for (Reference reference : references) {
+            if (this.schemas.containsKey(reference.key())) {
+                continue;
+            }
+            String name = reference.name;
+            if (this.schemaNames.contains(name) && reference.file != null) {//the same simple name in another file
+                String outer = reference.file.getName().substring(0, reference.file.getName().lastIndexOf('.'));
+                String packageName = SourceIndex.readPackageName(reference.file);
+                name = (packageName.isEmpty() ? "" : packageName + ".")
+                        + (outer.equals(name) ? "" : outer + ".") + name;//a nested class is qualified by its file's class
+            }
+            String unique = name;
+            for (int i = 2; this.schemaNames.contains(unique); i++) {
+                unique = name + "_" + i;
+            }
+            this.schemaNames.add(unique);
+            this.schemas.put(reference.key(), unique);
+            this.schemasToWrite.add(reference);
+        }
+    }
+
+    /**
+     * Description: Writes the schema of a DTO object from the getters of the class declaring it, the same getters the
+     * @Schema annotations are added to. An enum is written as a string schema with the enum's constants.
+     *
+     * @param dto    the DTO object, named by refer()
+     * @param parser the parser to parse the file with
+     * @throws IOException if the document cannot be written
+     */
+    private void writeDTOSchema(Reference dto, JavaParser parser) throws IOException {
+        String name = dto.name;
+        File file = dto.file;
+        CompilationUnit compUnit = null;
+        if (file != null) {
+            try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.PARSE)) {
+                ParseResult<CompilationUnit> result = parser.parse(file);
+                compUnit = result.isSuccessful() ? result.getResult().orElse(null) : null;
+                RunReport.count(compUnit == null ? "parseFailures" : "filesParsed");
+            }
+        }
+        Optional<TypeDeclaration> declaration = compUnit == null ? Optional.empty()
+                : compUnit.findFirst(TypeDeclaration.class, type -> type.getNameAsString().equals(name));
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(); // the schema, until its references are named
+        Output out = new Output(buffer);
+        out.json.writeStartObject();
+        if (!declaration.isPresent()) {
+            out.json.writeStringField("type", "object");
+            out.json.writeStringField("description", "TODO: " + name + " was not found in the source directories.");
+        } else if (declaration.get() instanceof EnumDeclaration) {
+            out.json.writeStringField("type", "string");
+            out.json.writeArrayFieldStart("enum");
+            for (EnumConstantDeclaration constant : ((EnumDeclaration) declaration.get()).getEntries()) {
+                out.json.writeString(constant.getNameAsString());
+            }
+            out.json.writeEndArray();
+        } else {
+            out.json.writeStringField("type", "object");
+            out.json.writeObjectFieldStart("properties");
+            List<String> required = new ArrayList<>();
+            for (Object member : declaration.get().getMethods()) {
+                MethodDeclaration getter = (MethodDeclaration) member;
+                String property = propertyOf(getter);
+                if (property == null) {
+                    continue;
+                }
+                Optional<AnnotationExpr> schema = getter.getAnnotationByName("Schema");
+                if (valueOf(schema, "required").orElse("false").equals("true")) {
+                    required.add(property);
+                }
+                String description = valueOf(schema, "description").orElse(this.finder.createSchemaDescription(
+                        FilesToAnnotateFinder.splitCamelCase(this.finder.getMethodName(getter)).split(" ")));
+                out.json.writeFieldName(property);
+                writeSchema(out, getter.getType(), compUnit, description);
+            }
+            out.json.writeEndObject();
+            if (!required.isEmpty()) {
+                out.json.writeArrayFieldStart("required");
+                for (String property : required) {
+                    out.json.writeString(property);
+                }
+                out.json.writeEndArray();
+            }
+        }
+        out.json.writeEndObject();
+        out.json.close();
+
+        this.json.writeFieldName(this.schemas.get(dto.key()));
+        refer(out.references);
+        try (JsonParser schema = BUFFERS.createParser(buffer.toByteArray())) {
+            schema.nextToken();
+            copy(this.json, schema, out.references);
+        }
+        this.schemasWritten++;
+    }
+
+    /**
+     * Description: Finds the property a getter reads: getName() and isName() both read name
+     *
+     * @param method the method
+     * @return the name of the property, null if the method is not a public getter
+     */
+    private static String propertyOf(MethodDeclaration method) {
+        if (!method.isPublic() || method.isStatic() || !method.getParameters().isEmpty()
+                || method.getType().isVoidType()) {
+            return null;
+        }
+        String name = method.getNameAsString();
+        int prefix = name.startsWith("get") ? 3 : name.startsWith("is") ? 2 : 0;
+        if (prefix == 0 || name.length() == prefix) {
+            return null;
+        }
+        String property = name.substring(prefix);
+        if (property.length() > 1 && Character.isUpperCase(property.charAt(1))) {//an acronym (ex. getURL) stays as it is
+            return property;
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    /**
+     * Description: Finds the HTTP method of a resource method from its JAX-RS annotation
+     *
+     * @param method the method
+     * @return the HTTP method (ex. GET), null if the method is not a resource method
+     */
+    private static String httpMethodOf(MethodDeclaration method) {
+        for (String httpMethod : HTTP_METHODS) {
+            if (method.isAnnotationPresent(httpMethod)) {
+                return httpMethod;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Description: Finds the media types of a resource method's @Produces or @Consumes annotation, or of its class's
+     * if the method has none
+     *
+     * @param endpoint   the resource method
+     * @param annotation Produces or Consumes
+     * @return the media types, application/json if neither the method nor its class has the annotation
+     */
+    private static List<String> mediaTypesOf(Endpoint endpoint, String annotation) {
+        Optional<AnnotationExpr> opt = endpoint.method.getAnnotationByName(annotation);
+        if (!opt.isPresent()) {
+            opt = endpoint.resource.getAnnotationByName(annotation);
+        }
+        List<String> mediaTypes = new ArrayList<>();
+        if (opt.isPresent() && opt.get() instanceof SingleMemberAnnotationExpr) {
+            Expression value = ((SingleMemberAnnotationExpr) opt.get()).getMemberValue();
+            List<Expression> values = value instanceof ArrayInitializerExpr
+                    ? ((ArrayInitializerExpr) value).getValues() : Collections.singletonList(value);
+            for (Expression mediaType : values) {
+                if (mediaType instanceof FieldAccessExpr) {//ex. MediaType.APPLICATION_JSON
+                    mediaTypes.add(mediaTypeOf(((FieldAccessExpr) mediaType).getNameAsString()));
+                } else {
+                    mediaTypes.add(stringOf(mediaType));
+                }
+            }
+        }
+        if (mediaTypes.isEmpty()) {
+            mediaTypes.add(DEFAULT_MEDIA_TYPE);
+        }
+        return mediaTypes;
+    }
+
+    /**
+     * Description: Converts the name of a javax.ws.rs.core.MediaType constant to its media type
+     *
+     * @param constant the name of the constant (ex. APPLICATION_JSON)
+     * @return the media type (ex. application/json)
+     */
+    private static String mediaTypeOf(String constant) {
+        String name = constant.endsWith("_TYPE") ? constant.substring(0, constant.length() - 5) : constant;
+        if (name.equals("APPLICATION_FORM_URLENCODED")) {
+            return "application/x-www-form-urlencoded";
+        }
+        if (name.equals("WILDCARD")) {
+            return "*/*";
+        }
+        int separator = name.indexOf('_');
+        if (separator == -1) {
+            return name.toLowerCase();
+        }
+        return (name.substring(0, separator) + "/" + name.substring(separator + 1).replace('_', '-')).toLowerCase();
+    }
+
+    /**
+     * Description: Joins the @Path of a resource class and of one of its methods. Regular expressions of path
+     * templates (ex. {id: [0-9]+}) are removed, since OpenAPI paths only name their parameters.
+     *
+     * @param basePath the path of the class
+     * @param path     the path of the method
+     * @return the path of the method, starting with a /
+     */
+    static String joinPaths(String basePath, String path) {
+        StringBuilder joined = new StringBuilder();
+        for (String segment : (basePath + "/" + path).split("/")) {
+            if (!segment.trim().isEmpty()) {
+                joined.append('/').append(segment.trim());
+            }
+        }
+        String result = joined.length() == 0 ? "/" : joined.toString();
+        return result.replaceAll("\\{\\s*([^}:\\s]+)\\s*:[^}]*}", "{$1}");
+    }
+
+    /**
+     * Description: Retrieves a value of an annotation as a string
+     *
+     * @param annotation the annotation, if present
+     * @param key        the name of the value (value for the single value of an annotation such as @Path("/x"))
+     * @return the value, empty if the annotation or the value is missing
+     */
+    private static Optional<String> valueOf(Optional<AnnotationExpr> annotation, String key) {
+        if (!annotation.isPresent()) {
+            return Optional.empty();
+        }
+        if (annotation.get() instanceof SingleMemberAnnotationExpr && key.equals("value")) {
+            return Optional.of(stringOf(((SingleMemberAnnotationExpr) annotation.get()).getMemberValue()));
+        }
+        if (annotation.get() instanceof NormalAnnotationExpr) {
+            for (MemberValuePair pair : ((NormalAnnotationExpr) annotation.get()).getPairs()) {
+                if (pair.getNameAsString().equals(key)) {
+                    return Optional.of(stringOf(pair.getValue()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Description: Converts an annotation value to a string. String literals (and concatenations of them) give their
+     * text, anything else (ex. a constant) is printed as it is written.
+     *
+     * @param value the annotation value
+     * @return the string
+     */
+    private static String stringOf(Expression value) {
+        if (value instanceof StringLiteralExpr) {
+            return ((StringLiteralExpr) value).asString();
+        }
+        if (value instanceof BinaryExpr && ((BinaryExpr) value).getOperator() == BinaryExpr.Operator.PLUS) {
+            return stringOf(((BinaryExpr) value).getLeft()) + stringOf(((BinaryExpr) value).getRight());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Description: Cleans a @param description the way the @Parameter annotations clean it
+     *
+     * @param description the description
+     * @return the description on a single line
+     */
+    private static String clean(String description) {
+        return description.replace("\n", "").replace("\r", "").replace("  ", " ");
+    }
+
+    /**
+     * Description: Creates a summary of the document written, with a line for every operation that was skipped
+     *
+     * @return the summary
+     */
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder("OpenAPI: documented " + this.operationsWritten.size()
+                + " operations on " + this.paths.size() + " paths from " + this.resourcesWritten
+                + " REST service files, " + this.schemasWritten + " schemas, " + this.duplicateOperations.size()
+                + " duplicate operations skipped.");
+        for (String operation : this.duplicateOperations) {
+            summary.append(System.lineSeparator()).append("  Duplicate: ").append(operation);
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.json.close();
+        } finally {
+            this.spill.close();
+            this.spillFile.delete();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Description: This generator adds a swagger @Operation annotation to REST service methods (methods with a @Path
+ * annotation) that do not already have one. The description comes from the method's JavaDoc comment, or a TODO
+ * description is added if the method has no comment.
+ */
+
+public class OperationGenerator implements AnnotationGenerator {
+
+    private FileBuilder builder; // builds the @Operation annotation
+
+    /**
+     * Description: Default constructor for the OperationGenerator
+     *
+     * @param builder the FileBuilder used to build the @Operation annotation
+     */
+    public OperationGenerator(FileBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    public boolean needsAnnotations(AnnotationTarget target) {
+        AnnotationIndex existing = target.getExistingAnnotations();
+        return existing.has(AnnotationIndex.PATH) && !existing.has(AnnotationIndex.OPERATION);
+    }
+
+    @Override
+    public void annotateMethod(AnnotationTarget target) {
+        this.builder.putOperationAnnotation(target.getMethod(), target.getComment(), target.getExistingAnnotations());
+    }
+}
@@ -0,0 +1,59 @@
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.ws.rs.core.Context;
+import java.util.List;
+
+/**
+ * Description: This generator adds a swagger @Parameter annotation to each parameter of REST service methods (methods
+ * with a @Path annotation) that do not already have one. @Context parameters are skipped. The description of each
+ * parameter comes from the matching @param tag of the method's JavaDoc comment, or a TODO description is added if the
+ * method has no JavaDoc comment.
+ */
+
+public class ParameterGenerator implements AnnotationGenerator {
+
+    @Override
+    public boolean needsAnnotations(AnnotationTarget target) {
+        AnnotationIndex existing = target.getExistingAnnotations();
+        if (!existing.has(AnnotationIndex.PATH) || existing.has(AnnotationIndex.PARAMETER)) {
+            return false;
+        }
+        for (Parameter parameter : target.getParameters()) {
+            if (!parameter.isAnnotationPresent(Context.class)) {//at least one parameter will be annotated
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void annotateParameter(AnnotationTarget target, Parameter parameter, int index) {
+        if (parameter.isAnnotationPresent(Context.class)) {//@Context parameters are not documented
+            return;
+        }
+        List<String> descriptions = target.getParameterDescriptions();
+        if (descriptions == null) {//JavaDoc Comment does not exist, so add a TODO description
+            NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(parameter, io.swagger.v3.oas.annotations.Parameter.class);
+            ann.addPair("description", "\"TODO: Add description and @Schema annotation here.\"");
+            RunReport.todoAdded("Parameter");
+            return;
+        }
+
+        String description = index < descriptions.size() ? descriptions.get(index) : "TODO: Add parameter description";
+        if (index >= descriptions.size()) {//the JavaDoc comment has fewer @param tags than the method has parameters
+            RunReport.todoAdded("Parameter");
+        }
+        description = description.replace("\n", "");
+        description = description.replace("\r", "");
+        description = description.replace("  ", " ");
+        description = description.replace("\"", "\\\"");
+        description = "\"" + description + "\"";
+        NormalAnnotationExpr ann = AnnotationTemplates.addAndGetAnnotation(parameter, io.swagger.v3.oas.annotations.Parameter.class);
+        ann.addPair("description", description);
+        ann.addPair("schema", "@Schema(type = " + "\"" + parameter.getTypeAsString() + "\"" + ")");
+        RunReport.annotationAdded("Schema");//the @Schema of a @Parameter annotation
+        ImportManager.of(target.getCompilationUnit()).add(Schema.class);//not added again if the file already imports it
+    }
+}
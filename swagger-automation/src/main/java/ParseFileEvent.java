@@ -0,0 +1,35 @@
+import jdk.jfr.*;
+
+/**
+ * Description: JDK Flight Recorder event for a file checked by the REST service search: ruled out by the prefilter, or
+ * parsed (or taken from the parse cache) and checked for an @Path annotation. The fields are only filled in when the
+ * event is recorded, so the event costs nothing while no recording is running.
+ */
+
+@Name("swaggerautomation.ParseFile")
+@Label("Parse File")
+@Category("Swagger Automation")
+@Description("A file checked by the REST service search")
+@StackTrace(false)
+public class ParseFileEvent extends Event {
+
+    @Label("Path")
+    String path; // the file checked
+
+    @Label("Size")
+    @DataAmount
+    long size; // size of the file on disk
+
+    @Label("Node Count")
+    int nodes; // nodes in the file's abstract syntax tree, 0 if it was not parsed
+
+    @Label("Prefiltered")
+    @Description("The file was ruled out without being parsed")
+    boolean prefiltered; // whether the prefilter ruled the file out
+
+    @Label("Cache Hit")
+    boolean cacheHit; // whether the tree came from the parse cache
+
+    @Label("REST Service")
+    boolean restService; // whether the file is a REST service
+}
@@ -0,0 +1,29 @@
+import jdk.jfr.*;
+
+/**
+ * Description: JDK Flight Recorder event for a class name (ex. the name of a DTO object) being resolved to the file
+ * declaring it. The fields are only filled in when the event is recorded, so the event costs nothing while no
+ * recording is running.
+ */
+
+@Name("swaggerautomation.ResolveClass")
+@Label("Resolve Class")
+@Category("Swagger Automation")
+@Description("A class name resolved to the file declaring it")
+@StackTrace(false)
+public class ResolveClassEvent extends Event {
+
+    @Label("Class Name")
+    String className; // the class name resolved
+
+    @Label("Context")
+    @Description("The file or directory the name was resolved from")
+    String context; // the file the name is used in, or the directory searched
+
+    @Label("Path")
+    String path; // the file declaring the class, null if the name was not resolved
+
+    @Label("Cache Hit")
+    @Description("The name was resolved without walking a directory, parsing a file, or reading a file's imports")
+    boolean cacheHit; // whether only previously built indexes and results were used
+}
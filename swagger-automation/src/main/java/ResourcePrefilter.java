@@ -0,0 +1,156 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: This class is a cheap textual check that rules out files that cannot be REST services before they are
+ * parsed. A file can only be a REST service if its name ends in Resource.java or if its text contains an @Path
+ * annotation or a javax.ws.rs token. The file's raw bytes are scanned for these tokens, large files are memory-mapped
+ * instead of being read onto the heap. A single prefilter can be shared by several worker threads.
+ */
+
+public class ResourcePrefilter {
+
+    private static final long MAP_THRESHOLD = 64 * 1024; // files at least this large are memory-mapped
+    private static final byte[] PATH = "Path".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JAX_RS = "javax.ws.rs".getBytes(StandardCharsets.US_ASCII);
+
+    private AtomicInteger filesChecked = new AtomicInteger(); // number of files checked by the prefilter
+    private AtomicInteger filesSkipped = new AtomicInteger(); // number of files ruled out by the prefilter
+
+    /**
+     * Description: Checks whether the given file could be a REST service and therefore needs to be parsed. Files that
+     * cannot be read are passed on so that the parser can report them the same way it did before.
+     *
+     * @param file the file to check
+     * @return true if the file needs to be parsed, false if it cannot be a REST service
+     */
+    public boolean mightBeRESTService(File file) {
+        this.filesChecked.incrementAndGet();
+        String name = file.getName();
+        if (name.endsWith("Resource.java")) {//resource files are always REST services
+            return true;
+        }
+        if (!name.endsWith(".java")) {//only java files can be REST services
+            this.filesSkipped.incrementAndGet();
+            return false;
+        }
+
+        try {
+            ByteBuffer content = read(file);
+            if (containsPathAnnotation(content) || indexOf(content, JAX_RS, 0) != -1) {
+                return true;
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        this.filesSkipped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Description: Reads the content of the file. Files larger than MAP_THRESHOLD are memory-mapped, smaller ones are
+     * read into a heap buffer since mapping a small file costs more than reading it.
+     *
+     * @param file the file to read
+     * @return the content of the file
+     * @throws IOException if the file cannot be read
+     */
+    private ByteBuffer read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                //reading until the buffer is full
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Description: Checks whether the content contains an @Path annotation. Whitespace is allowed between the @ and
+     * the annotation name, just as it is in java source.
+     *
+     * @param content the content to search
+     * @return true if an @Path annotation is present
+     */
+    private boolean containsPathAnnotation(ByteBuffer content) {
+        int limit = content.limit();
+        for (int i = 0; i < limit; i++) {
+            if (content.get(i) == '@') {
+                int j = i + 1;
+                while (j < limit && Character.isWhitespace(content.get(j))) {
+                    j++;
+                }
+                if (matchesAt(content, PATH, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Description: Finds the first occurrence of the target bytes in the content
+     *
+     * @param content the content to search
+     * @param target  the bytes to search for
+     * @param from    the index to start searching from
+     * @return the index of the first occurrence, -1 if not found
+     */
+    private int indexOf(ByteBuffer content, byte[] target, int from) {
+        int last = content.limit() - target.length;
+        for (int i = from; i <= last; i++) {
+            if (matchesAt(content, target, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Description: Checks whether the target bytes appear in the content at the given index
+     *
+     * @param content the content to check
+     * @param target  the bytes to check for
+     * @param index   the index in the content to check at
+     * @return true if the target bytes appear at the index
+     */
+    private boolean matchesAt(ByteBuffer content, byte[] target, int index) {
+        if (index + target.length > content.limit()) {
+            return false;
+        }
+        for (int i = 0; i < target.length; i++) {
+            if (content.get(index + i) != target[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of files checked
+     *
+     * @return the number of files checked by the prefilter
+     */
+    public int getFilesChecked() {
+        return this.filesChecked.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of files skipped
+     *
+     * @return the number of files ruled out by the prefilter
+     */
+    public int getFilesSkipped() {
+        return this.filesSkipped.get();
+    }
+}
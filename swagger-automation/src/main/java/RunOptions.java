@@ -0,0 +1,236 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: This class represents the command line options given to the FilesToAnnotateFinder main method.
+ * <p>
+ * Options:
+ * --threads=N    annotate REST service files on N worker threads (--threads alone uses one worker per processor)
+ * --incremental  skip files that are unchanged since the last incremental run
+ * --fsync=N      force each written file to disk before it replaces the original, and sync the directories of the
+ *                written files in batches of N files
+ * --streaming    annotate each REST service and its DTO files before parsing the next one, so that only the files
+ *                being annotated are kept in memory
+ * --include=GLOB only search files matching the glob, relative to each searched directory (may be repeated)
+ * --exclude=GLOB skip files and directories matching the glob (may be repeated)
+ * --no-gitignore do not skip files and directories ignored by .gitignore files
+ * --changed-stdin only process the files listed on stdin (NUL or line separated, ex. git diff --name-only -z) and the
+ *                DTO files they reach
+ * --changed-since=REF only process the files changed since the git ref (or range) and the DTO files they reach
+ * --watch        keep running after the first run and annotate files again as they change
+ * --parse-cache=MB keep parsed files within an estimated MB of heap (defaults to a quarter of the maximum heap)
+ * --root=DIR     search the pls directories in DIR instead of the default source directory
+ * --report=FILE  write the time spent in each phase and the run's counters to FILE as JSON
+ * --openapi=FILE write an OpenAPI document of the REST services to FILE (YAML if it ends in .yaml or .yml) instead of
+ *                annotating the source files
+ */
+
+public class RunOptions {
+
+    private int threads; // number of worker threads used to parse, annotate, and write REST service files
+    private boolean incremental; // whether files unchanged since the last run are skipped
+    private int syncBatchSize; // number of written files to sync to disk at once, 0 to never sync
+    private boolean streaming; // whether each REST service is annotated and released before the next one is parsed
+    private List<String> includes; // globs of the files to search, every java file if empty
+    private List<String> excludes; // globs of the files and directories to skip
+    private boolean useGitignore; // whether files and directories ignored by .gitignore files are skipped
+    private boolean changedFromStdin; // whether the files to process are read from stdin
+    private String changedSince; // git ref the files to process changed since, null to process every file
+    private boolean watch; // whether the source directories are watched for changes after the first run
+    private long parseCacheBytes; // estimated heap parsed files may be cached in, -1 for the default budget
+    private String root; // directory whose pls directories are searched
+    private String reportFile; // file the JSON run report is written to, null to not write a report
+    private String openApiFile; // file the OpenAPI document is written to, null to annotate the source files
+
+    public RunOptions() {
+        this.threads = 1;
+        this.includes = new ArrayList<>();
+        this.excludes = new ArrayList<>();
+        this.useGitignore = true;
+        this.parseCacheBytes = -1;
+        this.root = FilesToAnnotateFinder.PLS_DIRECTORY;
+    }
+
+    /**
+     * Description: Creates the run options from the command line arguments
+     *
+     * @param args the command line arguments
+     * @return the run options
+     * @throws IllegalArgumentException if an argument is not recognized
+     */
+    public static RunOptions parse(String[] args) {
+        RunOptions options = new RunOptions();
+        for (String arg : args) {
+            if (arg.equals("--threads")) {
+                options.threads = Runtime.getRuntime().availableProcessors();
+            } else if (arg.startsWith("--threads=")) {
+                options.threads = Math.max(1, Integer.parseInt(valueOf(arg)));
+            } else if (arg.equals("--incremental")) {
+                options.incremental = true;
+            } else if (arg.startsWith("--fsync=")) {
+                options.syncBatchSize = Math.max(0, Integer.parseInt(valueOf(arg)));
+            } else if (arg.equals("--streaming")) {
+                options.streaming = true;
+            } else if (arg.startsWith("--include=")) {
+                options.includes.add(valueOf(arg));
+            } else if (arg.startsWith("--exclude=")) {
+                options.excludes.add(valueOf(arg));
+            } else if (arg.equals("--no-gitignore")) {
+                options.useGitignore = false;
+            } else if (arg.equals("--changed-stdin")) {
+                options.changedFromStdin = true;
+            } else if (arg.startsWith("--changed-since=")) {
+                options.changedSince = valueOf(arg);
+            } else if (arg.equals("--watch")) {
+                options.watch = true;
+            } else if (arg.startsWith("--parse-cache=")) {
+                options.parseCacheBytes = Math.max(0, Long.parseLong(valueOf(arg))) * 1024 * 1024;
+            } else if (arg.startsWith("--root=")) {
+                options.root = valueOf(arg);
+            } else if (arg.startsWith("--report=")) {
+                options.reportFile = valueOf(arg);
+            } else if (arg.startsWith("--openapi=")) {
+                options.openApiFile = valueOf(arg);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Description: Retrieves the value of an option in the form --name=value
+     *
+     * @param arg the option
+     * @return the value of the option
+     */
+    private static String valueOf(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of worker threads
+     *
+     * @return the number of worker threads
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Description: Standard getter for checking whether the run is incremental
+     *
+     * @return true if files unchanged since the last run are skipped
+     */
+    public boolean isIncremental() {
+        return this.incremental;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of written files to sync to disk at once
+     *
+     * @return the sync batch size, 0 if written files are not synced
+     */
+    public int getSyncBatchSize() {
+        return this.syncBatchSize;
+    }
+
+    /**
+     * Description: Standard getter for checking whether the run is streaming
+     *
+     * @return true if each REST service is annotated and released before the next one is parsed
+     */
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the globs of the files to search
+     *
+     * @return the include globs, empty to search every java file
+     */
+    public List<String> getIncludes() {
+        return this.includes;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the globs of the files and directories to skip
+     *
+     * @return the exclude globs
+     */
+    public List<String> getExcludes() {
+        return this.excludes;
+    }
+
+    /**
+     * Description: Standard getter for checking whether .gitignore files are honored
+     *
+     * @return true if files and directories ignored by .gitignore files are skipped
+     */
+    public boolean isUseGitignore() {
+        return this.useGitignore;
+    }
+
+    /**
+     * Description: Standard getter for checking whether the files to process are read from stdin
+     *
+     * @return true if only the files listed on stdin are processed
+     */
+    public boolean isChangedFromStdin() {
+        return this.changedFromStdin;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the git ref the files to process changed since
+     *
+     * @return the git ref or range, null if every file is processed
+     */
+    public String getChangedSince() {
+        return this.changedSince;
+    }
+
+    /**
+     * Description: Standard getter for checking whether the source directories are watched
+     *
+     * @return true if files are annotated again as they change
+     */
+    public boolean isWatch() {
+        return this.watch;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the estimated heap parsed files may be cached in
+     *
+     * @return the budget in bytes, -1 for the default budget
+     */
+    public long getParseCacheBytes() {
+        return this.parseCacheBytes;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the directory whose pls directories are searched
+     *
+     * @return the root directory
+     */
+    public String getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the file the run report is written to
+     *
+     * @return the path of the report, null if no report is written
+     */
+    public String getReportFile() {
+        return this.reportFile;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the file the OpenAPI document is written to
+     *
+     * @return the path of the document, null if the source files are annotated instead
+     */
+    public String getOpenApiFile() {
+        return this.openApiFile;
+    }
+}
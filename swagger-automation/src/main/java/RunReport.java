@@ -0,0 +1,255 @@
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Description: This class records the wall time and CPU time spent in each phase of a run, along with counters of the
+ * files parsed and written and of the annotations and TODO descriptions added, and writes them as a JSON report.
+ * Times are measured on the thread doing the work, so on several worker threads the time of a phase is the sum over
+ * every worker and can be more than the run's wall time. A phase started inside another phase (ex. parsing a DTO file
+ * while resolving its name) pauses the outer one, so no time is counted twice. Phases are only timed once the report
+ * is enabled, the counters are always kept.
+ */
+
+public class RunReport {
+
+    /**
+     * Description: The phases of a run that are timed
+     */
+    public enum Phase {
+        DISCOVERY, PREFILTER, PARSE, LEXICAL_SETUP, ANNOTATION, DTO_RESOLUTION, PRINT, WRITE
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean(); // reads each thread's CPU time
+    private static final Timer NOT_TIMED = new Timer(null, null, 0, 0); // returned while the report is disabled
+
+    private static volatile boolean enabled; // whether phases are timed
+    private static ThreadLocal<Timer> current = new ThreadLocal<>(); // the innermost phase running on each thread
+    private static AtomicLongArray wallNanos = new AtomicLongArray(Phase.values().length); // wall time of each phase
+    private static AtomicLongArray cpuNanos = new AtomicLongArray(Phase.values().length); // CPU time of each phase
+    private static AtomicLongArray calls = new AtomicLongArray(Phase.values().length); // times each phase was entered
+    private static Map<String, AtomicLong> counters = new ConcurrentHashMap<>(); // counter name -> count
+    private static Map<String, AtomicLong> annotationsAdded = new ConcurrentHashMap<>(); // annotation -> number added
+    private static Map<String, AtomicLong> todosAdded = new ConcurrentHashMap<>(); // annotation -> TODO descriptions
+    private static long startedAt = System.currentTimeMillis(); // time the run started
+    private static long startNanos = System.nanoTime(); // nano time the run started, for the run's wall time
+
+    private RunReport() {
+
+    }
+
+    /**
+     * Description: A phase being timed on the current thread. Closing it adds its time to the phase and resumes the
+     * phase it was started in.
+     */
+    public static final class Timer implements AutoCloseable {
+
+        private final Phase phase; // the phase timed, null if the report is disabled
+        private final Timer outer; // the phase this phase was started in, null if there is none
+        private long wallStart; // nano time the phase started or was last resumed
+        private long cpuStart; // thread CPU time the phase started or was last resumed
+
+        private Timer(Phase phase, Timer outer, long wallStart, long cpuStart) {
+            this.phase = phase;
+            this.outer = outer;
+            this.wallStart = wallStart;
+            this.cpuStart = cpuStart;
+        }
+
+        private void addTime(long wall, long cpu) {
+            wallNanos.addAndGet(this.phase.ordinal(), wall - this.wallStart);
+            cpuNanos.addAndGet(this.phase.ordinal(), cpu - this.cpuStart);
+        }
+
+        @Override
+        public void close() {
+            if (this.phase == null) {
+                return;
+            }
+            long wall = System.nanoTime();
+            long cpu = cpuTime();
+            addTime(wall, cpu);
+            current.set(this.outer);
+            if (this.outer != null) {//resuming the outer phase
+                this.outer.wallStart = wall;
+                this.outer.cpuStart = cpu;
+            }
+        }
+    }
+
+    /**
+     * Description: Starts timing a phase on the current thread, to be closed when the phase ends (ex. in a
+     * try-with-resources statement). The phase the current thread is in is paused until then.
+     *
+     * @param phase the phase to time
+     * @return the timer to close when the phase ends
+     */
+    public static Timer time(Phase phase) {
+        if (!enabled) {
+            return NOT_TIMED;
+        }
+        long wall = System.nanoTime();
+        long cpu = cpuTime();
+        Timer outer = current.get();
+        if (outer != null) {//pausing the outer phase
+            outer.addTime(wall, cpu);
+        }
+        Timer timer = new Timer(phase, outer, wall, cpu);
+        current.set(timer);
+        calls.incrementAndGet(phase.ordinal());
+        return timer;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Description: Standard setter for setting whether phases are timed
+     *
+     * @param enabled true to time phases
+     */
+    public static void setEnabled(boolean enabled) {
+        RunReport.enabled = enabled;
+    }
+
+    /**
+     * Description: Standard getter for checking whether phases are timed and a report will be written
+     *
+     * @return true if phases are timed
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Description: Adds one to a counter
+     *
+     * @param name the name of the counter
+     */
+    public static void count(String name) {
+        add(counters, name, 1);
+    }
+
+    /**
+     * Description: Adds to a counter
+     *
+     * @param name   the name of the counter
+     * @param amount the amount to add
+     */
+    public static void count(String name, long amount) {
+        add(counters, name, amount);
+    }
+
+    /**
+     * Description: Records an annotation added to a file
+     *
+     * @param annotation the simple name of the annotation (ex. Operation)
+     */
+    public static void annotationAdded(String annotation) {
+        add(annotationsAdded, annotation, 1);
+    }
+
+    /**
+     * Description: Records a TODO description added because the information for an annotation was missing
+     *
+     * @param annotation the simple name of the annotation the TODO description was added to (ex. Operation)
+     */
+    public static void todoAdded(String annotation) {
+        add(todosAdded, annotation, 1);
+    }
+
+    private static void add(Map<String, AtomicLong> counts, String name, long amount) {
+        AtomicLong count = counts.get(name);
+        if (count == null) {
+            count = counts.computeIfAbsent(name, key -> new AtomicLong());
+        }
+        count.addAndGet(amount);
+    }
+
+    /**
+     * Description: Standard getter for retrieving the value of a counter
+     *
+     * @param name the name of the counter
+     * @return the value of the counter, 0 if it was never counted
+     */
+    public static long getCount(String name) {
+        AtomicLong count = counters.get(name);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Description: Writes the report as JSON: the run's start time and wall time, the wall and CPU time of each phase
+     * in milliseconds, and every counter
+     *
+     * @param file    the file to write the report to
+     * @param options the options of the run, included in the report
+     * @throws IOException if the report cannot be written
+     */
+    public static void write(File file, RunOptions options) throws IOException {
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("version", IncrementalManifest.TOOL_VERSION);
+            json.writeNumberField("startedAt", startedAt);
+            json.writeNumberField("wallMillis", (System.nanoTime() - startNanos) / 1e6);
+
+            json.writeObjectFieldStart("options");
+            json.writeStringField("root", options.getRoot());
+            json.writeNumberField("threads", options.getThreads());
+            json.writeBooleanField("incremental", options.isIncremental());
+            json.writeBooleanField("streaming", options.isStreaming());
+            json.writeBooleanField("watch", options.isWatch());
+            json.writeEndObject();
+
+            json.writeObjectFieldStart("phases");
+            for (Phase phase : Phase.values()) {
+                json.writeObjectFieldStart(phase.name().toLowerCase());
+                json.writeNumberField("wallMillis", wallNanos.get(phase.ordinal()) / 1e6);
+                json.writeNumberField("cpuMillis", cpuNanos.get(phase.ordinal()) / 1e6);
+                json.writeNumberField("calls", calls.get(phase.ordinal()));
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+
+            writeCounts(json, "counters", counters);
+            writeCounts(json, "annotationsAdded", annotationsAdded);
+            writeCounts(json, "todoFallbacks", todosAdded);
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeCounts(JsonGenerator json, String name, Map<String, AtomicLong> counts) throws IOException {
+        json.writeObjectFieldStart(name);
+        for (Map.Entry<String, AtomicLong> count : new TreeMap<>(counts).entrySet()) {//sorted so reports diff cleanly
+            json.writeNumberField(count.getKey(), count.getValue().get());
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Description: Resets the times and counters, for use at the start of a run
+     */
+    public static void reset() {
+        for (int i = 0; i < wallNanos.length(); i++) {
+            wallNanos.set(i, 0);
+            cpuNanos.set(i, 0);
+            calls.set(i, 0);
+        }
+        counters.clear();
+        annotationsAdded.clear();
+        todosAdded.clear();
+        startedAt = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Description: This generator adds a swagger @Schema annotation to the getter methods of DTO files, or adds the
+ * required labels that are missing from an existing @Schema annotation.
+ */
+
+public class SchemaGetterGenerator implements AnnotationGenerator {
+
+    private FilesToAnnotateFinder finder; // builds the @Schema annotations
+
+    /**
+     * Description: Default constructor for the SchemaGetterGenerator
+     *
+     * @param finder the FilesToAnnotateFinder used to build the @Schema annotations
+     */
+    public SchemaGetterGenerator(FilesToAnnotateFinder finder) {
+        this.finder = finder;
+    }
+
+    @Override
+    public boolean needsAnnotations(AnnotationTarget target) {
+        return this.finder.needsGetterAnnotation(target.getMethod());
+    }
+
+    @Override
+    public void annotateMethod(AnnotationTarget target) {
+        this.finder.annotateGetter(target.getMethod());
+    }
+}
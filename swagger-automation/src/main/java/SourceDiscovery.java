@@ -0,0 +1,460 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Description: This class finds the source files to process. Each root directory is walked with
+ * Files.walkFileTree() and directories that can never contain source files to annotate are pruned instead of being
+ * descended into: build output and tool directories (target, node_modules, .git, generated-sources), directories
+ * matching an exclude glob, and directories ignored by a .gitignore file. Files are kept if they match an include glob
+ * (every java file by default), match no exclude glob, and are not ignored by a .gitignore file. The subdirectories of
+ * a root can be walked on several worker threads, with the files found in the same order as a single threaded walk.
+ * <p>
+ * Globs use the java.nio glob syntax and are matched against the path relative to the root (ex. **&#47;dto/**).
+ */
+
+public class SourceDiscovery {
+
+    static final Set<String> DEFAULT_EXCLUDED_DIRECTORIES = new HashSet<>(Arrays.asList(
+            "target", "node_modules", ".git", "generated-sources")); // never contain source files to annotate
+
+    private List<PathMatcher> includes; // files must match one of these, every java file if empty
+    private List<PathMatcher> excludes; // files and directories matching one of these are skipped
+    private boolean useGitignore; // whether .gitignore files are honored
+    private int threads; // number of worker threads used to walk the subdirectories of each root
+    private AtomicInteger directoriesVisited = new AtomicInteger(); // directories walked
+    private AtomicInteger directoriesPruned = new AtomicInteger(); // directories skipped along with everything in them
+    private AtomicInteger filesFound = new AtomicInteger(); // files kept
+    private long walkMillis; // time taken by the last discover() call
+
+    /**
+     * Description: Default constructor for the SourceDiscovery. Every java file that is not excluded by default or by
+     * a .gitignore file is found, on a single thread.
+     */
+    public SourceDiscovery() {
+        this.includes = new ArrayList<>();
+        this.excludes = new ArrayList<>();
+        this.useGitignore = true;
+        this.threads = 1;
+    }
+
+    /**
+     * Description: Adds a glob that files must match to be found. Once a glob is added, only files matching one of the
+     * added globs are found.
+     *
+     * @param glob the glob, matched against the path relative to the root
+     */
+    public void addInclude(String glob) {
+        this.includes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+    }
+
+    /**
+     * Description: Adds a glob of files and directories to skip
+     *
+     * @param glob the glob, matched against the path relative to the root
+     */
+    public void addExclude(String glob) {
+        this.excludes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+    }
+
+    /**
+     * Description: Standard setter for setting whether .gitignore files are honored
+     *
+     * @param useGitignore true to skip files and directories ignored by a .gitignore file
+     */
+    public void setUseGitignore(boolean useGitignore) {
+        this.useGitignore = useGitignore;
+    }
+
+    /**
+     * Description: Standard setter for setting the number of worker threads used to walk the subdirectories of each
+     * root
+     *
+     * @param threads the number of worker threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Description: Finds the source files under the given roots. A root that is a file is checked against the rules of
+     * the directory containing it.
+     *
+     * @param roots the directories (or files) to search
+     * @return the files found, in walk order
+     * @throws IOException if a worker fails
+     */
+    public Stream<Path> discover(Path... roots) throws IOException {
+        long start = System.nanoTime();
+        List<Path> results = new ArrayList<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                results.addAll(walkRoot(root));
+            } else if (Files.isRegularFile(root)) {
+                Path directory = root.toAbsolutePath().getParent();
+                if (accept(directory, root.toAbsolutePath(), readGitignore(null, directory), false)) {
+                    results.add(root);
+                }
+            }
+        }
+        this.walkMillis = (System.nanoTime() - start) / 1000000;
+        return results.stream();
+    }
+
+    /**
+     * Description: Finds which of the given files discover(roots) would find, without walking the roots. Each file is
+     * checked against the same rules as a walk: every directory between its root and the file must be walked (not
+     * excluded by default, by an exclude glob, or by a .gitignore file), and the file must match the include and
+     * exclude globs relative to its root. Files outside of every root and files that no longer exist are dropped.
+     *
+     * @param files the files to check, ex. the files touched by a change
+     * @param roots the directories that would be searched
+     * @return the files that would be found, in the given order
+     */
+    public Stream<Path> filter(Collection<Path> files, Path... roots) {
+        long start = System.nanoTime();
+        List<Path> absoluteRoots = new ArrayList<>();
+        for (Path root : roots) {
+            absoluteRoots.add(root.toAbsolutePath().normalize());
+        }
+        Map<Path, GitignoreRules> walked = new HashMap<>();//rules inside each directory checked so far
+        Set<Path> pruned = new HashSet<>();//directories checked so far that a walk would skip
+        List<Path> results = new ArrayList<>();
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            for (Path root : absoluteRoots) {
+                if (absolute.startsWith(root) && !absolute.equals(root)) {//the first root containing the file decides
+                    if (Files.isRegularFile(absolute) && isWalkedTo(root, absolute, walked, pruned)) {
+                        results.add(file);
+                    }
+                    break;
+                }
+            }
+        }
+        this.walkMillis = (System.nanoTime() - start) / 1000000;
+        return results.stream();
+    }
+
+    /**
+     * Description: Checks whether a walk of the root would find the file, checking the directories between them from
+     * the root down
+     *
+     * @param root   the root containing the file
+     * @param file   the file
+     * @param walked the rules inside each directory already checked, added to as directories are checked
+     * @param pruned the directories already checked that a walk would skip, added to as directories are checked
+     * @return true if the file would be found
+     */
+    private boolean isWalkedTo(Path root, Path file, Map<Path, GitignoreRules> walked, Set<Path> pruned) {
+        if (!walked.containsKey(root)) {
+            walked.put(root, readGitignore(null, root));
+        }
+        GitignoreRules rules = walked.get(root);
+        Path relative = root.relativize(file);
+        Path directory = root;
+        for (int i = 0; i < relative.getNameCount() - 1; i++) {
+            directory = directory.resolve(relative.getName(i));
+            if (pruned.contains(directory)) {
+                return false;
+            }
+            if (!walked.containsKey(directory)) {
+                if (!accept(root, directory, rules, true)) {
+                    pruned.add(directory);
+                    return false;
+                }
+                walked.put(directory, readGitignore(rules, directory));
+            }
+            rules = walked.get(directory);
+        }
+        return accept(root, file, rules, false);
+    }
+
+    /**
+     * Description: Walks a single root directory. With more than one worker thread, each subdirectory of the root is
+     * walked as a separate task and the results are joined in the order the subdirectories were listed.
+     *
+     * @param root the directory to walk
+     * @return the files found
+     * @throws IOException if a worker fails
+     */
+    private List<Path> walkRoot(Path root) throws IOException {
+        GitignoreRules rootRules = readGitignore(null, root);
+        if (this.threads <= 1) {
+            return walk(root, root, rootRules);
+        }
+
+        this.directoriesVisited.incrementAndGet();
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path child : stream) {
+                children.add(child);
+            }
+        }
+        List<List<Path>> found = WorkerPool.map(children, this.threads, child -> {
+            if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                return walk(root, child, rootRules);
+            }
+            List<Path> file = new ArrayList<>(1);
+            if (accept(root, child, rootRules, false)) {
+                file.add(child);
+            }
+            return file;
+        });
+        List<Path> results = new ArrayList<>();
+        for (List<Path> paths : found) {
+            results.addAll(paths);
+        }
+        return results;
+    }
+
+    /**
+     * Description: Walks a directory of a root, pruning the directories that are excluded or ignored
+     *
+     * @param root        the root the directory belongs to, globs are matched relative to it
+     * @param start       the directory to walk
+     * @param parentRules the .gitignore rules that apply to the directory that contains start
+     * @return the files found
+     * @throws IOException if the directory cannot be walked
+     */
+    private List<Path> walk(Path root, Path start, GitignoreRules parentRules) throws IOException {
+        List<Path> results = new ArrayList<>();
+        Deque<GitignoreRules> rules = new LinkedList<>();//the rules of each directory being walked, null if none
+        rules.push(parentRules);
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && !accept(root, dir, rules.peek(), true)) {//skipping the whole directory
+                    directoriesPruned.incrementAndGet();
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directoriesVisited.incrementAndGet();
+                rules.push(dir.equals(root) ? parentRules : readGitignore(rules.peek(), dir));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && accept(root, file, rules.peek(), false)) {
+                    results.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;//files and directories that cannot be read are skipped
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                rules.pop();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Description: Checks whether a file should be found, or a directory should be walked
+     *
+     * @param root        the root the path belongs to
+     * @param path        the file or directory
+     * @param rules       the .gitignore rules of the directory containing the path
+     * @param isDirectory whether the path is a directory
+     * @return true if the file is found or the directory is walked
+     */
+    private boolean accept(Path root, Path path, GitignoreRules rules, boolean isDirectory) {
+        Path relative = root.relativize(path);
+        if (isDirectory && DEFAULT_EXCLUDED_DIRECTORIES.contains(path.getFileName().toString())) {
+            return false;
+        }
+        for (PathMatcher exclude : this.excludes) {
+            if (exclude.matches(relative)) {
+                return false;
+            }
+        }
+        if (rules != null && rules.isIgnored(path, isDirectory)) {
+            return false;
+        }
+        if (isDirectory) {
+            return true;
+        }
+        if (!isIncluded(relative)) {
+            return false;
+        }
+        this.filesFound.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Description: Checks whether a file matches the include globs
+     *
+     * @param relative the path of the file relative to its root
+     * @return true if the file matches an include glob, or is a java file if there are no include globs
+     */
+    private boolean isIncluded(Path relative) {
+        if (this.includes.isEmpty()) {
+            return relative.getFileName().toString().endsWith(".java");
+        }
+        for (PathMatcher include : this.includes) {
+            if (include.matches(relative)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Description: Reads the .gitignore file of a directory, if it has one
+     *
+     * @param parent    the rules that apply to the directory's parent, null if there are none
+     * @param directory the directory
+     * @return the rules that apply inside the directory
+     */
+    private GitignoreRules readGitignore(GitignoreRules parent, Path directory) {
+        if (!this.useGitignore) {
+            return null;
+        }
+        Path gitignore = directory.resolve(".gitignore");
+        if (!Files.isRegularFile(gitignore)) {
+            return parent;
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(gitignore, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            return parent;//the .gitignore file cannot be read, so nothing more is ignored
+        }
+        return new GitignoreRules(parent, directory, lines);
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of directories walked by discover()
+     *
+     * @return the number of directories walked
+     */
+    public int getDirectoriesVisited() {
+        return this.directoriesVisited.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of directories skipped, along with everything in them
+     *
+     * @return the number of directories pruned
+     */
+    public int getDirectoriesPruned() {
+        return this.directoriesPruned.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of files found by discover()
+     *
+     * @return the number of files found
+     */
+    public int getFilesFound() {
+        return this.filesFound.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the time taken by the last discover() call
+     *
+     * @return the walk time in milliseconds
+     */
+    public long getWalkMillis() {
+        return this.walkMillis;
+    }
+
+    /**
+     * Description: Creates a one line summary of the last walk
+     *
+     * @return the summary
+     */
+    public String summary() {
+        return "Found " + this.filesFound.get() + " source files in " + this.directoriesVisited.get()
+                + " directories (" + this.directoriesPruned.get() + " directories pruned) in " + this.walkMillis + " ms.";
+    }
+
+    /**
+     * Description: This class represents the rules of a single .gitignore file, along with the rules of the .gitignore
+     * files of the directories above it. Rules are checked from the outermost .gitignore file to the innermost and the
+     * last rule that matches decides whether a path is ignored, so a negated rule (!pattern) can un-ignore a path.
+     */
+    private static class GitignoreRules {
+        private GitignoreRules parent; // rules of the directories above, null if there are none
+        private Path directory; // the directory containing the .gitignore file
+        private List<Rule> rules = new ArrayList<>();
+
+        private GitignoreRules(GitignoreRules parent, Path directory, List<String> lines) {
+            this.parent = parent;
+            this.directory = directory;
+            for (String line : lines) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                this.rules.add(new Rule(line));
+            }
+        }
+
+        /**
+         * Description: Checks whether the path is ignored by these rules or the rules of the directories above
+         *
+         * @param path        the file or directory to check
+         * @param isDirectory whether the path is a directory
+         * @return true if the path is ignored
+         */
+        private boolean isIgnored(Path path, boolean isDirectory) {
+            Boolean ignored = match(path, isDirectory);
+            return ignored != null && ignored;
+        }
+
+        private Boolean match(Path path, boolean isDirectory) {
+            Boolean result = this.parent == null ? null : this.parent.match(path, isDirectory);
+            Path relative = this.directory.relativize(path);
+            for (Rule rule : this.rules) {
+                if (rule.matches(relative, isDirectory)) {
+                    result = !rule.negated;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Description: This class represents a single line of a .gitignore file
+     */
+    private static class Rule {
+        private boolean negated; // the line starts with !, so matching paths are not ignored
+        private boolean directoryOnly; // the line ends with /, so only directories match
+        private PathMatcher matcher;
+
+        private Rule(String pattern) {
+            if (pattern.startsWith("!")) {
+                this.negated = true;
+                pattern = pattern.substring(1);
+            }
+            if (pattern.endsWith("/")) {
+                this.directoryOnly = true;
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            if (pattern.startsWith("/")) {//anchored to the directory of the .gitignore file
+                pattern = pattern.substring(1);
+            } else if (!pattern.contains("/")) {//a name, matched at any depth
+                pattern = "{" + pattern + ",**/" + pattern + "}";
+            }
+            this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        }
+
+        private boolean matches(Path relative, boolean isDirectory) {
+            return (isDirectory || !this.directoryOnly) && this.matcher.matches(relative);
+        }
+    }
+}
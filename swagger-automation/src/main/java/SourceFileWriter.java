@@ -0,0 +1,248 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: This class writes annotated files back to disk. It is shared by the FileBuilder (REST service files)
+ * and the FilesToAnnotateFinder (DTO files). A file is only written if its new content differs from what is already
+ * on disk, so unchanged files keep their last modified time and do not trigger recompiles. Content is always written
+ * as UTF-8 to a temporary file in the same directory, given the original file's permissions, and then moved over the
+ * original file in one step so that an interrupted run never leaves a partially written source file. With a sync batch
+ * size, the temporary file is also forced to disk before the move, and the directories of the moved files are synced
+ * in batches, so that a crash cannot leave a renamed but empty or short file either. The writer remembers the hash of the content it last wrote to each file, so that a watch mode can tell its
+ * own writes apart from edits.
+ */
+
+public class SourceFileWriter {
+
+    private static final String TEMP_SUFFIX = ".swagger-tmp"; // suffix of the temporary file written before the move
+
+    private int syncBatchSize; // number of written files to sync to disk at once, 0 to never sync
+    private List<Path> unsynced; // written files whose directories have not been synced to disk yet
+    private AtomicInteger filesWritten = new AtomicInteger(); // number of files written
+    private AtomicInteger filesSkipped = new AtomicInteger(); // number of files skipped since their content is unchanged
+    private AtomicLong bytesWritten = new AtomicLong(); // number of bytes written
+    private Map<Path, String> lastWritten = new ConcurrentHashMap<>(); // absolute path -> hash of the content written
+
+    /**
+     * Description: Default constructor for the SourceFileWriter. Written files are not synced to disk.
+     */
+    public SourceFileWriter() {
+        this(0);
+    }
+
+    /**
+     * Description: Creates a writer that syncs written files to disk once the given number of files has been written
+     *
+     * @param syncBatchSize the number of written files to sync the directories of at once, 0 to never sync
+     */
+    public SourceFileWriter(int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+        this.unsynced = new ArrayList<>();
+    }
+
+    /**
+     * Description: Writes the content to the file if it differs from the file's current content
+     *
+     * @param file    the file to write
+     * @param content the new content of the file
+     * @return true if the file was written, false if its content was already the same
+     * @throws IOException if the file cannot be written
+     */
+    public boolean write(File file, String content) throws IOException {
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.WRITE)) {
+            return replace(file, content);
+        }
+    }
+
+    /**
+     * Description: Replaces the file with the content through a temporary file, unless it already has the content
+     *
+     * @param file    the file to write
+     * @param content the new content of the file
+     * @return true if the file was written, false if its content was already the same
+     * @throws IOException if the file cannot be written
+     */
+    private boolean replace(File file, String content) throws IOException {
+        Path target = file.toPath();
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (hasContent(target, bytes)) {//the file already contains the new content
+            this.filesSkipped.incrementAndGet();
+            RunReport.count("filesUnchanged");
+            return false;
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (this.syncBatchSize > 0) {//the content must be on disk before the move makes it the original file
+                channel.force(true);
+            }
+        }
+        try {
+            copyAttributes(target, temp);//the temporary file was created with the default permissions
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        this.filesWritten.incrementAndGet();
+        this.bytesWritten.addAndGet(bytes.length);
+        RunReport.count("filesWritten");
+        RunReport.count("bytesWritten", bytes.length);
+        this.lastWritten.put(target.toAbsolutePath(), IncrementalManifest.hash(bytes));
+        if (this.syncBatchSize > 0) {
+            List<Path> toSync = null;
+            synchronized (this.unsynced) {
+                this.unsynced.add(target);
+                if (this.unsynced.size() >= this.syncBatchSize) {//a full batch is ready to be synced
+                    toSync = new ArrayList<>(this.unsynced);
+                    this.unsynced.clear();
+                }
+            }
+            if (toSync != null) {
+                sync(toSync);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Description: Checks whether the file still contains exactly what this writer last wrote to it
+     *
+     * @param file the file to check
+     * @return true if the current content of the file was written by this writer
+     */
+    public boolean isOwnWrite(Path file) {
+        String hash = this.lastWritten.get(file.toAbsolutePath());
+        return hash != null && hash.equals(IncrementalManifest.hash(file.toFile()));
+    }
+
+    /**
+     * Description: Checks whether the file already contains the given bytes
+     *
+     * @param target the file to check
+     * @param bytes  the bytes to compare against
+     * @return true if the file exists and its content equals the bytes
+     * @throws IOException if the file cannot be read
+     */
+    private boolean hasContent(Path target, byte[] bytes) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(target) != bytes.length) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(target), bytes);
+    }
+
+    /**
+     * Description: Gives the temporary file the permissions, owner, and group of the file it replaces. The owner and
+     * group are only copied if this process is allowed to change them.
+     *
+     * @param original the file being replaced
+     * @param temp     the temporary file
+     * @throws IOException if the permissions cannot be copied
+     */
+    private static void copyAttributes(Path original, Path temp) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(original, PosixFileAttributeView.class);
+        if (view == null || !Files.exists(original)) {//not a posix file system, or a new file
+            return;
+        }
+        PosixFileAttributes attributes = view.readAttributes();
+        PosixFileAttributeView tempView = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+        tempView.setPermissions(attributes.permissions());
+        try {
+            tempView.setGroup(attributes.group());
+            tempView.setOwner(attributes.owner());
+        } catch (IOException e) {//only privileged users may give a file away, the file is then owned by this user
+        }
+    }
+
+    /**
+     * Description: Syncs the directories of every written file that has not been synced yet. This should be called
+     * once all files have been written if a sync batch size was given.
+     *
+     * @throws IOException if a file cannot be synced
+     */
+    public void flush() throws IOException {
+        List<Path> toSync;
+        synchronized (this.unsynced) {
+            toSync = new ArrayList<>(this.unsynced);
+            this.unsynced.clear();
+        }
+        try (RunReport.Timer ignored = RunReport.time(RunReport.Phase.WRITE)) {
+            sync(toSync);
+        }
+    }
+
+    /**
+     * Description: Forces the directories of the given files to disk, which makes the moves of the files durable. The
+     * files themselves were forced to disk before they were moved. Directories cannot be opened on every platform (ex.
+     * Windows), where the moves are as durable as the platform makes them.
+     *
+     * @param paths the written files
+     * @throws IOException if a directory cannot be synced
+     */
+    private void sync(List<Path> paths) throws IOException {
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Path path : paths) {
+            directories.add(path.toAbsolutePath().getParent());
+        }
+        for (Path directory : directories) {
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(directory, StandardOpenOption.READ);
+            } catch (IOException e) {
+                continue;
+            }
+            try (FileChannel open = channel) {
+                open.force(true);
+            }
+        }
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of files written
+     *
+     * @return the number of files written
+     */
+    public int getFilesWritten() {
+        return this.filesWritten.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of files skipped since their content was unchanged
+     *
+     * @return the number of files skipped
+     */
+    public int getFilesSkipped() {
+        return this.filesSkipped.get();
+    }
+
+    /**
+     * Description: Standard getter for retrieving the number of bytes written
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten.get();
+    }
+}
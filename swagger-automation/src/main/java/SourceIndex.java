@@ -0,0 +1,180 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Description: This class is an index of every java file under a source directory. The directory is walked once by a
+ * SourceDiscovery when the index is created, and every file is mapped by its simple class name (the file name without
+ * the .java extension) and by its fully qualified name (taken from the file's package declaration). This replaces
+ * walking the whole directory every time a DTO file needs to be found. The source roots found under the directory
+ * (the directories the package paths start from, ex. src/main/java) are recorded as well.
+ */
+
+public class SourceIndex {
+
+    private File root; // the directory that was indexed
+    private Map<String, List<File>> simpleNames; // lower case simple class name -> every file declaring that name
+    private Map<String, File> qualifiedNames; // fully qualified class name -> file
+    private Set<File> sourceRoots; // directories whose layout matches the packages of the files in them
+
+    /**
+     * Description: Creates an index of every java file in the given directory
+     *
+     * @param root the directory to index
+     */
+    public SourceIndex(File root) {
+        this.root = root;
+        this.simpleNames = new HashMap<>();
+        this.qualifiedNames = new HashMap<>();
+        this.sourceRoots = new LinkedHashSet<>();
+        if (root.isDirectory()) {
+            try {
+                new SourceDiscovery().discover(root.toPath()).forEach(path -> addFile(path.toFile().getAbsoluteFile()));
+            } catch (IOException e) {
+                System.out.println("Directory could not be indexed: " + root);
+            }
+        }
+    }
+
+    /**
+     * Description: Adds a single java file to the index
+     *
+     * @param file the java file to add
+     */
+    private void addFile(File file) {
+        String name = file.getName();
+        String className = name.substring(0, name.length() - ".java".length());
+        List<File> files = this.simpleNames.get(className.toLowerCase());
+        if (files == null) {
+            files = new ArrayList<>(1);
+            this.simpleNames.put(className.toLowerCase(), files);
+        }
+        files.add(file);
+
+        String packageName = readPackageName(file);
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        if (!this.qualifiedNames.containsKey(qualifiedName)) {
+            this.qualifiedNames.put(qualifiedName, file);
+        }
+
+        File sourceRoot = file.getParentFile();
+        String[] packages = packageName.isEmpty() ? new String[0] : packageName.split("\\.");
+        for (int i = packages.length - 1; i >= 0 && sourceRoot != null; i--) {//climbing one directory per package
+            sourceRoot = sourceRoot.getName().equals(packages[i]) ? sourceRoot.getParentFile() : null;
+        }
+        if (sourceRoot != null) {//the file is in the directory its package names
+            this.sourceRoots.add(sourceRoot);
+        }
+    }
+
+    /**
+     * Description: Reads the package declaration of a java file without parsing the whole file. Reading stops at the
+     * first import or type declaration since the package declaration must come before them.
+     *
+     * @param file the java file to read
+     * @return the package name, or an empty string if the file is in the default package or cannot be read
+     */
+    static String readPackageName(File file) {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("package ")) {
+                    int end = line.indexOf(';');
+                    return (end == -1 ? line.substring(8) : line.substring(8, end)).trim();
+                }
+                if (line.startsWith("import ") || line.startsWith("public ") || line.startsWith("class ")
+                        || line.startsWith("interface ") || line.startsWith("enum ") || line.startsWith("@")) {
+                    break;//the package declaration can no longer appear
+                }
+            }
+        } catch (IOException e) {
+            //the file is indexed by its simple name only
+        }
+        return "";
+    }
+
+    /**
+     * Description: Finds all files declaring the given simple class name. The lookup ignores case, matching the file
+     * search it replaces.
+     *
+     * @param className the simple class name to search for
+     * @return every file declaring the class name, an empty list if none are found
+     */
+    public List<File> getFiles(String className) {
+        List<File> files = this.simpleNames.get(className.toLowerCase());
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Description: Finds the file declaring the given simple class name. If more than one file declares the name, the
+     * first one found is returned.
+     *
+     * @param className the simple class name to search for
+     * @return the file declaring the class name, null if not found
+     */
+    public File getFile(String className) {
+        List<File> files = this.simpleNames.get(className.toLowerCase());
+        if (files == null) {
+            return null;
+        }
+        return files.get(0);
+    }
+
+    /**
+     * Description: Finds the file declaring the given fully qualified class name
+     *
+     * @param qualifiedName the fully qualified class name (ex. com.example.dto.ExampleDTO)
+     * @return the file declaring the class, null if not found
+     */
+    public File getFileByQualifiedName(String qualifiedName) {
+        return this.qualifiedNames.get(qualifiedName);
+    }
+
+    /**
+     * Description: Standard getter for retrieving the source roots found in the indexed directory
+     *
+     * @return the directories whose layout matches the packages of the java files in them
+     */
+    public Set<File> getSourceRoots() {
+        return Collections.unmodifiableSet(this.sourceRoots);
+    }
+
+    /**
+     * Description: Checks whether more than one file declares the given simple class name
+     *
+     * @param className the simple class name to check
+     * @return true if the simple class name is declared in more than one file
+     */
+    public boolean isDuplicate(String className) {
+        return getFiles(className).size() > 1;
+    }
+
+    /**
+     * Description: Standard getter for retrieving the indexed directory
+     *
+     * @return the indexed directory
+     */
+    public File getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Description: Returns the number of java files in the index
+     *
+     * @return the number of indexed files
+     */
+    public int size() {
+        int size = 0;
+        for (List<File> files : this.simpleNames.values()) {
+            size += files.size();
+        }
+        return size;
+    }
+}
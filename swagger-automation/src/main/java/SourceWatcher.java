@@ -0,0 +1,189 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Description: This class watches the source directories for changed java files, so that a long running process can
+ * annotate files as they are edited. Every directory under the roots is registered with a WatchService (build output
+ * directories are skipped), and directories created later are registered as they appear. Events are collected until the
+ * directories have been quiet for a short time, so that a save that touches many files (or a branch switch) is handled
+ * as one batch. Files whose content is exactly what the tool last wrote to them are left out, so the tool's own writes
+ * never trigger another run.
+ */
+
+public class SourceWatcher implements Closeable {
+
+    static final long DEBOUNCE_MILLIS = 500; // how long the directories must be quiet before a batch is returned
+
+    private WatchService service; // the service the directories are registered with
+    private Map<WatchKey, Path> directories; // watch key -> directory it was registered for
+    private SourceFileWriter writer; // the writer whose writes are ignored
+    private Set<File> created; // files created in the current batch
+    private boolean filesCreated; // whether the last batch contained new files
+    private int ownWritesIgnored; // number of events ignored since they were caused by the writer
+
+    /**
+     * Description: Creates a watcher that ignores the writes made by the given writer
+     *
+     * @param writer the writer used to annotate files
+     * @throws IOException if the watch service cannot be created
+     */
+    public SourceWatcher(SourceFileWriter writer) throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.directories = new HashMap<>();
+        this.writer = writer;
+    }
+
+    /**
+     * Description: Registers the directory and every directory under it
+     *
+     * @param root the directory to watch
+     * @throws IOException if a directory cannot be registered
+     */
+    public void register(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(root) && SourceDiscovery.DEFAULT_EXCLUDED_DIRECTORIES.contains(
+                        dir.getFileName().toString())) {//build output is rewritten by every build
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;//unreadable directories are not watched
+            }
+        });
+    }
+
+    /**
+     * Description: Waits until java files change, then keeps collecting events until the directories have been quiet
+     * for DEBOUNCE_MILLIS
+     *
+     * @return the changed java files, never empty
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws IOException          if a new directory cannot be registered
+     */
+    public Set<File> awaitChanges() throws InterruptedException, IOException {
+        Set<File> changed = new LinkedHashSet<>();
+        this.created = new HashSet<>();
+        while (changed.isEmpty()) {
+            WatchKey key = this.service.take();//blocking until the first event
+            while (key != null) {
+                drain(key, changed);
+                key = this.service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            changed.removeIf(file -> {
+                if (this.writer.isOwnWrite(file.toPath())) {
+                    this.ownWritesIgnored++;
+                    return true;
+                }
+                return false;
+            });
+        }
+        this.created.retainAll(changed);//the writer's moves over existing files are reported as creations
+        this.filesCreated = !this.created.isEmpty();
+        return changed;
+    }
+
+    /**
+     * Description: Adds the java files named by the key's events to the changed files and resets the key
+     *
+     * @param key     the key that was signalled
+     * @param changed the set to add the changed files to
+     * @throws IOException if a new directory cannot be registered
+     */
+    private void drain(WatchKey key, Set<File> changed) throws IOException {
+        Path directory = this.directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {//events were lost, every file in the directory
+                //is reported and the manifest filters out the ones that did not change
+                addJavaFiles(directory, changed);
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {//a new package, or a directory moved in
+                    register(path);
+                    try (Stream<Path> files = Files.walk(path)) {
+                        files.filter(this::isJavaFile).forEach(file -> {
+                            changed.add(file.toFile());
+                            this.created.add(file.toFile());
+                        });
+                    }
+                }
+            } else if (isJavaFile(path)) {
+                changed.add(path.toFile());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    this.created.add(path.toFile());
+                }
+            }
+        }
+        if (!key.reset()) {//the directory was deleted
+            this.directories.remove(key);
+        }
+    }
+
+    private void addJavaFiles(Path directory, Set<File> changed) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.java")) {
+            for (Path path : stream) {
+                changed.add(path.toFile());
+                this.created.add(path.toFile());//new files may be among them
+            }
+        }
+    }
+
+    private boolean isJavaFile(Path path) {
+        return path.getFileName().toString().endsWith(".java") && Files.isRegularFile(path);
+    }
+
+    /**
+     * Description: Checks whether the last batch contained files that did not exist before, in which case the indexes
+     * of class names to files are out of date
+     *
+     * @return true if files were created
+     */
+    public boolean hasFilesCreated() {
+        return this.filesCreated;
+    }
+
+    /**
+     * Description: Standard getter for the number of events ignored since they were caused by the writer
+     *
+     * @return the number of events ignored
+     */
+    public int getOwnWritesIgnored() {
+        return this.ownWritesIgnored;
+    }
+
+    /**
+     * Description: Standard getter for the number of directories watched
+     *
+     * @return the number of directories watched
+     */
+    public int getDirectoriesWatched() {
+        return this.directories.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.service.close();
+    }
+}
@@ -0,0 +1,301 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Description: This class finds the file that declares a class name used in a file, the way the compiler would. A
+ * simple name is looked up through the file's single type imports first, then the file's own package, then its
+ * wildcard imports. Each candidate fully qualified name is looked up in the SourceIndex of every source directory, so a
+ * name that resolves is found with a few hash lookups even when several modules declare the same simple name. Names
+ * that are not declared in the source directories are checked against a CombinedTypeSolver (the classpath, and a
+ * JavaParserTypeSolver for every source root found by the indexes), which is built once and reused. Names that resolve
+ * to classes outside the source directories are skipped, and names that cannot be resolved at all are recorded so that
+ * they can be reported.
+ */
+
+public class TypeResolver {
+
+    private static final DataKey<Context> CONTEXT = new DataKey<Context>() {
+    }; // key of the package and imports of a file, stored on its CompilationUnit
+    private static final File EXTERNAL = new File(""); // marks a name that resolves outside the source directories
+
+    private FilesToAnnotateFinder finder; // provides the index of each source directory
+    private List<String> sourceDirectories; // directories whose java files may be resolved to
+    private CombinedTypeSolver typeSolver; // built on first use, null until then
+    private Map<String, File> resolved; // fully qualified name -> file, or EXTERNAL
+    private Set<String> unsolvable; // fully qualified names neither the indexes nor the type solver know
+    private Map<String, String> unresolved; // name that could not be resolved -> a file it is used in
+    private int resolvedBySimpleName; // names resolved by the only file declaring the simple name
+
+    /**
+     * Description: The package and imports of a file, read once per file
+     */
+    private static class Context {
+        private String packageName = ""; // the file's package, empty for the default package
+        private Map<String, String> singleTypeImports = new HashMap<>(); // simple name -> fully qualified name
+        private List<String> wildcardImports = new ArrayList<>(); // packages (or classes) imported with a wildcard
+        private String fileName = "?"; // the file's name, used when reporting unresolved names
+    }
+
+    /**
+     * Description: Creates a resolver for the given source directories
+     *
+     * @param finder            the finder holding the index of each source directory
+     * @param sourceDirectories the directories names may be resolved to
+     */
+    public TypeResolver(FilesToAnnotateFinder finder, List<String> sourceDirectories) {
+        this.finder = finder;
+        this.sourceDirectories = new ArrayList<>(sourceDirectories);
+        this.resolved = new ConcurrentHashMap<>();
+        this.unsolvable = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        this.unresolved = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Description: Finds the file declaring the class name used in the given file
+     *
+     * @param className the class name, simple or qualified (ex. ExampleDTO, or Outer.InnerDTO)
+     * @param context   the file the name is used in
+     * @return the file declaring the class, null if the class is not declared in the source directories
+     */
+    public File resolve(String className, CompilationUnit context) {
+        Context imports = contextOf(context);
+        int dot = className.indexOf('.');
+        String first = dot == -1 ? className : className.substring(0, dot);
+        for (String candidate : candidatesOf(className, imports)) {
+            File file = resolveQualified(candidate);
+            if (file == EXTERNAL) {
+                return null;
+            }
+            if (file != null) {
+                return file;
+            }
+        }
+
+        if (imports.singleTypeImports.containsKey(first)) {//the import names a class that is not in the sources
+            this.unresolved.putIfAbsent(className, imports.fileName);
+            return null;
+        }
+        List<File> files = new ArrayList<>();//no import or package declares it, trying the simple name
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        for (String directory : this.sourceDirectories) {
+            files.addAll(this.finder.getSourceIndex(directory).getFiles(simpleName));
+        }
+        if (files.size() == 1) {//only one file could be meant
+            synchronized (this) {
+                this.resolvedBySimpleName++;
+            }
+            return files.get(0);
+        }
+        this.unresolved.putIfAbsent(className, imports.fileName + (files.isEmpty() ? ""
+                : " (declared in " + files.size() + " files)"));
+        return null;
+    }
+
+    /**
+     * Description: Lists the fully qualified names a class name used in a file could refer to, in the order the
+     * compiler would try them
+     *
+     * @param className the class name, simple or qualified
+     * @param imports   the package and imports of the file
+     * @return the candidate fully qualified names
+     */
+    private static List<String> candidatesOf(String className, Context imports) {
+        List<String> candidates = new ArrayList<>(3);
+        int dot = className.indexOf('.');
+        String first = dot == -1 ? className : className.substring(0, dot);
+        String rest = dot == -1 ? "" : className.substring(dot);
+        if (imports.singleTypeImports.containsKey(first)) {//a single type import hides every other candidate
+            candidates.add(imports.singleTypeImports.get(first) + rest);
+        } else {
+            candidates.add(imports.packageName.isEmpty() ? className : imports.packageName + "." + className);
+            for (String wildcard : imports.wildcardImports) {
+                candidates.add(wildcard + "." + className);
+            }
+            if (dot != -1) {//already fully qualified
+                candidates.add(className);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Description: Checks whether resolve() would answer from names resolved earlier, without reading the file's
+     * imports, walking a directory, or asking the type solver
+     *
+     * @param className the class name, simple or qualified
+     * @param context   the file the name is used in
+     * @return true if every lookup resolve() would make has been made before
+     */
+    public boolean isCached(String className, CompilationUnit context) {
+        if (!context.containsData(CONTEXT)) {
+            return false;
+        }
+        for (String candidate : candidatesOf(className, context.getData(CONTEXT))) {
+            if (this.resolved.containsKey(candidate)) {
+                return true;
+            }
+            if (!this.unsolvable.contains(candidate)) {
+                return false;
+            }
+        }
+        return true;//every candidate is known to be unsolvable
+    }
+
+    /**
+     * Description: Finds the file declaring the fully qualified class name. The source indexes are checked first, then
+     * the type solver. Results are kept, so each name is only resolved once.
+     *
+     * @param qualifiedName the fully qualified class name
+     * @return the file declaring the class, EXTERNAL if the class is outside the source directories, or null
+     */
+    private File resolveQualified(String qualifiedName) {
+        File file = this.resolved.get(qualifiedName);
+        if (file != null || this.unsolvable.contains(qualifiedName)) {
+            return file;
+        }
+        file = findInIndexes(qualifiedName);
+        if (file == null) {
+            file = solve(qualifiedName);
+        }
+        if (file == null) {
+            this.unsolvable.add(qualifiedName);
+        } else {
+            this.resolved.put(qualifiedName, file);
+        }
+        return file;
+    }
+
+    /**
+     * Description: Looks up a fully qualified name in the index of every source directory. A nested class is found in
+     * the file of its outermost class.
+     *
+     * @param qualifiedName the fully qualified class name
+     * @return the file declaring the class, null if no index has it
+     */
+    private File findInIndexes(String qualifiedName) {
+        String name = qualifiedName;
+        while (true) {
+            for (String directory : this.sourceDirectories) {
+                File file = this.finder.getSourceIndex(directory).getFileByQualifiedName(name);
+                if (file != null) {
+                    return file;
+                }
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot == -1 || !Character.isUpperCase(name.charAt(name.lastIndexOf('.', dot - 1) + 1))) {
+                return null;//the enclosing name is a package, not a class
+            }
+            name = name.substring(0, dot);
+        }
+    }
+
+    /**
+     * Description: Asks the type solver for a name the indexes do not have
+     *
+     * @param qualifiedName the fully qualified class name
+     * @return the file declaring the class, EXTERNAL if it is outside the source directories, null if it is unknown
+     */
+    private synchronized File solve(String qualifiedName) {
+        SymbolReference<ResolvedReferenceTypeDeclaration> reference;
+        try {
+            reference = getTypeSolver().tryToSolveType(qualifiedName);
+        } catch (RuntimeException e) {//a source file the solver could not parse, or a class it could not load
+            return null;
+        }
+        if (reference == null || !reference.isSolved()) {
+            return null;
+        }
+        File file = findInIndexes(reference.getCorrespondingDeclaration().getQualifiedName());
+        return file == null ? EXTERNAL : file;
+    }
+
+    /**
+     * Description: Builds the type solver on first use
+     *
+     * @return the type solver
+     */
+    private CombinedTypeSolver getTypeSolver() {
+        if (this.typeSolver == null) {
+            this.typeSolver = new CombinedTypeSolver();
+            this.typeSolver.add(new ReflectionTypeSolver(false));//the JDK and the libraries on the classpath
+            for (String directory : this.sourceDirectories) {
+                for (File sourceRoot : this.finder.getSourceIndex(directory).getSourceRoots()) {
+                    this.typeSolver.add(new JavaParserTypeSolver(sourceRoot));
+                }
+            }
+        }
+        return this.typeSolver;
+    }
+
+    /**
+     * Description: Retrieves the package and imports of a file, reading them on first use
+     *
+     * @param compUnit the file
+     * @return the package and imports of the file
+     */
+    private static Context contextOf(CompilationUnit compUnit) {
+        if (compUnit.containsData(CONTEXT)) {
+            return compUnit.getData(CONTEXT);
+        }
+        Context context = new Context();
+        compUnit.getPackageDeclaration().ifPresent(declaration -> context.packageName = declaration.getNameAsString());
+        for (ImportDeclaration importDeclaration : compUnit.getImports()) {
+            if (importDeclaration.isStatic()) {
+                continue;
+            }
+            String name = importDeclaration.getNameAsString();
+            if (importDeclaration.isAsterisk()) {
+                context.wildcardImports.add(name);
+            } else {
+                context.singleTypeImports.put(name.substring(name.lastIndexOf('.') + 1), name);
+            }
+        }
+        compUnit.getStorage().ifPresent(storage -> context.fileName = storage.getPath().toString());
+        compUnit.setData(CONTEXT, context);
+        return context;
+    }
+
+    /**
+     * Description: Forgets every name resolved so far, for use after files are created or the indexes are rebuilt. The
+     * type solver is rebuilt on next use.
+     */
+    public synchronized void clear() {
+        this.resolved.clear();
+        this.unsolvable.clear();
+        this.typeSolver = null;
+    }
+
+    /**
+     * Description: Standard getter for the names that could not be resolved, each with a file it is used in
+     *
+     * @return unresolved class name -> a file using it
+     */
+    public Map<String, String> getUnresolved() {
+        return new TreeMap<>(this.unresolved);
+    }
+
+    /**
+     * Description: Creates a summary of the names resolved and a line for every name that could not be resolved
+     *
+     * @return the summary
+     */
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder("Type resolution: " + this.resolved.size() + " names resolved, "
+                + this.resolvedBySimpleName + " by simple name only, " + this.unresolved.size() + " unresolved.");
+        for (Map.Entry<String, String> entry : getUnresolved().entrySet()) {
+            summary.append(System.lineSeparator()).append("  Unresolved: ").append(entry.getKey()).append(" in ")
+                    .append(entry.getValue());
+        }
+        return summary.toString();
+    }
+}
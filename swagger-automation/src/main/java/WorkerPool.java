@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Description: This class runs a task over a collection of items on a fixed number of worker threads. Results are
+ * returned in the same order as the items so that callers see the same order as a sequential run.
+ */
+
+public class WorkerPool {
+
+    private static final int WINDOW = 4; // items each worker may run ahead of the first result not handed off yet
+
+    /**
+     * Description: A unit of work to be run on a single item
+     *
+     * @param <T> the type of item the task is run on
+     * @param <R> the type of result the task returns
+     */
+    public interface Task<T, R> {
+        R run(T item) throws Exception;
+    }
+
+    /**
+     * Description: Receives the results of a task in the same order as the items
+     *
+     * @param <R> the type of result received
+     */
+    public interface Sink<R> {
+        void accept(R result) throws Exception;
+    }
+
+    /**
+     * Description: Holds the results that finished before the result of an earlier item, and hands every result to
+     * the sink once the results before it have been handed off
+     */
+    private static class HandOff<R> {
+        private Sink<R> sink; // receives the results in item order
+        private Semaphore window; // a permit for every item that may run before its result is handed off
+        private Map<Integer, R> finished = new HashMap<>(); // position of an item -> its result, waiting on an earlier item
+        private int next; // position of the first item whose result is not handed off yet
+        private volatile boolean failed; // whether a task or the sink failed, so no more items are run
+
+        private HandOff(Sink<R> sink, Semaphore window) {
+            this.sink = sink;
+            this.window = window;
+        }
+
+        private synchronized void add(int position, R result) throws Exception {
+            this.finished.put(position, result);
+            while (this.finished.containsKey(this.next)) {//handing off every result no longer waiting on an earlier one
+                this.sink.accept(this.finished.remove(this.next));
+                this.next++;
+                this.window.release();
+            }
+        }
+    }
+
+    private WorkerPool() {
+
+    }
+
+    /**
+     * Description: Runs the task over every item using the given number of worker threads. If a worker count of one or
+     * less is given, the items are processed on the calling thread.
+     *
+     * @param items   the items to run the task on
+     * @param workers the number of worker threads to use
+     * @param task    the task to run on each item
+     * @return the results of the task, in the same order as the items
+     * @throws IOException if any task fails
+     */
+    public static <T, R> List<R> map(Collection<T> items, int workers, Task<T, R> task) throws IOException {
+        List<R> results = new ArrayList<>(items.size());
+        if (workers <= 1) {//sequential run
+            for (T item : items) {
+                results.add(runTask(task, item));
+            }
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<R>> futures = new ArrayList<>(items.size());
+            for (final T item : items) {
+                futures.add(executor.submit(() -> task.run(item)));
+            }
+            for (Future<R> future : futures) {//waiting on the results in submission order
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for workers", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Description: Runs the task over every item using the given number of worker threads, handing each result to the
+     * sink as soon as the results of all earlier items have been handed to it. The sink is called by one thread at a
+     * time, in item order, so it sees the same order as a sequential run. Workers run at most a few items each ahead
+     * of the first result not handed off yet, so only the results of those items are held instead of every result.
+     * If a worker count of one or less is given, the items are processed on the calling thread.
+     *
+     * @param items   the items to run the task on
+     * @param workers the number of worker threads to use
+     * @param task    the task to run on each item
+     * @param sink    receives the result of every item, in the same order as the items
+     * @throws IOException if any task or the sink fails
+     */
+    public static <T, R> void forEach(Collection<T> items, int workers, Task<T, R> task, Sink<R> sink)
+            throws IOException {
+        if (workers <= 1) {//sequential run
+            for (T item : items) {
+                R result = runTask(task, item);
+                runTask(handed -> {
+                    sink.accept(handed);
+                    return null;
+                }, result);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore window = new Semaphore(workers * WINDOW);
+        HandOff<R> handOff = new HandOff<>(sink, window);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(items.size());
+            int position = 0;
+            for (final T item : items) {
+                window.acquire();//waiting until the earliest results are handed off
+                if (handOff.failed) {
+                    break;
+                }
+                final int itemPosition = position++;
+                futures.add(executor.submit(() -> {
+                    try {
+                        handOff.add(itemPosition, task.run(item));
+                    } catch (Throwable e) {
+                        handOff.failed = true;
+                        window.release();//the result is never handed off, so the submitting thread is woken here
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for workers", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Description: Runs the task on a single item on the calling thread
+     *
+     * @param task the task to run
+     * @param item the item to run the task on
+     * @return the result of the task
+     * @throws IOException if the task fails
+     */
+    private static <T, R> R runTask(Task<T, R> task, T item) throws IOException {
+        try {
+            return task.run(item);
+        } catch (Exception e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Description: Converts the failure of a task into an IOException. Runtime exceptions and errors are rethrown as is.
+     *
+     * @param cause the failure of the task
+     * @return the IOException to throw
+     */
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+}
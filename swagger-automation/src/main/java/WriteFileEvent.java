@@ -0,0 +1,29 @@
+import jdk.jfr.*;
+
+/**
+ * Description: JDK Flight Recorder event for an annotated file being printed with the LexicalPreservingPrinter and
+ * written. The fields are only filled in when the event is recorded, so the event costs nothing while no recording is
+ * running.
+ */
+
+@Name("swaggerautomation.WriteFile")
+@Label("Write File")
+@Category("Swagger Automation")
+@Description("An annotated file printed and written")
+@StackTrace(false)
+public class WriteFileEvent extends Event {
+
+    @Label("Path")
+    String path; // the file written
+
+    @Label("Size")
+    @DataAmount
+    long size; // size of the printed file
+
+    @Label("Node Count")
+    int nodes; // nodes in the file's abstract syntax tree
+
+    @Label("Written")
+    @Description("False if the file already had the printed content, so it was not written")
+    boolean written; // whether the file was written
+}
@@ -0,0 +1,59 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Description: Indexes REST resources of 10, 100, and 1000 methods with the AnnotationEngine that FileBuilder
+ * annotates with, and checks that every method added to a resource costs the same number of node visits, however many
+ * methods the resource already has
+ */
+
+public class MethodIndexTest {
+
+    private static final int[] SIZES = {10, 100, 1000}; // methods in each resource
+
+    @Test
+    public void workPerMethodDoesNotGrowWithTheClass() {
+        AnnotationEngine engine = new FileBuilder(new HashSet<>(), new ArrayList<>(Arrays.asList(
+                "@Operation", "@Parameter", "@Schema", "@ApiResponse"))).getEngine();
+        long[] visits = new long[SIZES.length]; // nodes visited indexing each resource
+        for (int i = 0; i < SIZES.length; i++) {
+            CompilationUnit compUnit = new JavaParser().parse(resource(SIZES[i])).getResult().get();
+            long before = engine.getNodesVisited();
+            assertEquals("every method is indexed once", SIZES[i], engine.findTargets(compUnit).size());
+            visits[i] = engine.getNodesVisited() - before;
+        }
+
+        //the methods are the same but for their number, so each one visits the same nodes
+        long perMethod = (visits[1] - visits[0]) / (SIZES[1] - SIZES[0]);
+        assertEquals(perMethod * (SIZES[1] - SIZES[0]), visits[1] - visits[0]);
+        assertEquals(perMethod * (SIZES[2] - SIZES[1]), visits[2] - visits[1]);
+    }
+
+    /**
+     * Description: Writes a REST resource whose methods each have a JavaDoc comment, @StatusCodes, and a parameter,
+     * and are all missing their swagger annotations
+     *
+     * @param methods the number of methods
+     * @return the source of the resource
+     */
+    private static String resource(int methods) {
+        StringBuilder source = new StringBuilder("import javax.ws.rs.*;\n\n@Path(\"/items\")\n"
+                + "public class ItemResource {\n");
+        for (int i = 0; i < methods; i++) {
+            source.append("\n    /**\n     * Handles item ").append(i).append(".\n     *\n")
+                    .append("     * @param id the identifier of the item\n     */\n")
+                    .append("    @GET\n    @Path(\"/op").append(i).append("/{id}\")\n")
+                    .append("    @StatusCodes({@ResponseCode(code = 200, condition = \"Success\")})\n")
+                    .append("    public String op").append(i).append("(@PathParam(\"id\") long id) {\n")
+                    .append("        return \"op").append(i).append("\";\n    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
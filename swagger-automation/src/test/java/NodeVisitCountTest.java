@@ -0,0 +1,91 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.visitor.TreeVisitor;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description: Annotates a generated tree through FileBuilder.annotateFile() and
+ * FilesToAnnotateFinder.annotateDTOFile(), and checks that the nodes their AnnotationEngine visits in each file are
+ * the nodes of a single walk of that file
+ */
+
+public class NodeVisitCountTest {
+
+    private static final String[] TREE = {"--resources=20", "--dtos=40", "--plain=5"}; // generator options
+    private static final ArrayList<String> ANNOTATIONS = new ArrayList<>(Arrays.asList(
+            "@Operation", "@Parameter", "@Schema", "@ApiResponse")); // the annotations added by the tool
+
+    private Path root; // the generated tree
+    private FileBuilder fileBuilder; // annotates REST services
+    private FilesToAnnotateFinder finder; // annotates DTO files
+
+    @Before
+    public void setUp() throws Exception {
+        this.root = SourceTrees.generate(Files.createTempDirectory("visits"), TREE);
+        this.fileBuilder = new FileBuilder(new HashSet<>(), ANNOTATIONS);
+        this.finder = new FilesToAnnotateFinder(new ArrayList<>());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        SourceTrees.delete(this.root);
+    }
+
+    @Test
+    public void engineWalksEachFileOnce() throws Exception {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(this.root)) {
+            files = paths.filter(p -> p.toString().endsWith("Resource.java") || p.toString().endsWith("DTO.java"))
+                    .sorted().collect(Collectors.toList());
+        }
+        assertTrue(!files.isEmpty());
+
+        LexicalPreservingPrinter lex = new LexicalPreservingPrinter();
+        long walked = 0; // nodes visited by walking every file once
+        for (Path file : files) {
+            long baseline = walk(new JavaParser().parse(file).getResult().get());
+            AbstractSyntaxTree tree = new AbstractSyntaxTree(file.toFile(), new JavaParser().parse(file).getResult().get());
+            AnnotationEngine engine;
+            long before;
+            if (file.toString().endsWith("DTO.java")) {
+                engine = this.finder.getDTOEngine();
+                before = engine.getNodesVisited();
+                this.finder.annotateDTOFile(tree, lex);
+            } else {
+                engine = this.fileBuilder.getEngine();
+                before = engine.getNodesVisited();
+                this.fileBuilder.annotateFile(tree, lex);
+            }
+            assertEquals(this.root.relativize(file).toString(), baseline, engine.getNodesVisited() - before);
+            walked += baseline;
+        }
+        assertEquals(walked, this.fileBuilder.getEngine().getNodesVisited() + this.finder.getDTOEngine().getNodesVisited());
+    }
+
+    private static long walk(Node node) {
+        long[] visits = {0};
+        new TreeVisitor() {
+            @Override
+            public void process(Node visited) {
+                visits[0]++;
+            }
+        }.visitPreOrder(node);
+        return visits[0];
+    }
+}
@@ -0,0 +1,133 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Description: Checks that DTO objects with the same simple name in different packages get a schema each, that every
+ * reference points at the schema of the DTO object it names, and that the operations of files declaring the same path
+ * are merged into one path item
+ */
+
+public class OpenApiWriterTest {
+
+    private Path root; // the searched directory
+    private Path document; // the OpenAPI document written
+
+    @Before
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("openapi");
+        this.root = directory.resolve("pls-c");
+        this.document = directory.resolve("openapi.json");
+        write("com/a/dto/ItemDTO.java", "package com.a.dto;\n\npublic class ItemDTO {\n"
+                + "    public String getName() { return null; }\n}\n");
+        write("com/b/dto/ItemDTO.java", "package com.b.dto;\n\npublic class ItemDTO {\n"
+                + "    public int getCount() { return 0; }\n    public OtherDTO getOther() { return null; }\n}\n");
+        write("com/b/dto/OtherDTO.java", "package com.b.dto;\n\npublic class OtherDTO {\n"
+                + "    public com.a.dto.ItemDTO getItem() { return null; }\n}\n");
+        write("com/a/rest/AResource.java", "package com.a.rest;\n\nimport com.a.dto.ItemDTO;\n"
+                + "import javax.ws.rs.*;\n\n@Path(\"/a\")\npublic class AResource {\n"
+                + "    @GET\n    public ItemDTO get() { return null; }\n}\n");
+        write("com/b/rest/BResource.java", "package com.b.rest;\n\nimport com.b.dto.ItemDTO;\n"
+                + "import javax.ws.rs.*;\n\n@Path(\"/b\")\npublic class BResource {\n"
+                + "    @GET\n    public ItemDTO get() { return null; }\n}\n");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        SourceTrees.delete(this.root.getParent());
+    }
+
+    @Test
+    public void sameSimpleNamesInDifferentPackagesGetDistinctSchemas() throws IOException {
+        SourceTrees.run("--root=" + this.root.getParent(), "--threads=4", "--openapi=" + this.document);
+        Map<String, List<String>> schemas = new HashMap<>(); // schema name -> its properties, and what they refer to
+        Map<String, String> paths = new HashMap<>(); // path -> the schema its operation returns
+        try (JsonParser parser = new JsonFactory().createParser(this.document.toFile())) {
+            List<String> objects = new ArrayList<>(); // the field names of the objects the parser is in
+            String field = null; // the last field name read
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    objects.add(field);
+                } else if (token == JsonToken.END_OBJECT) {
+                    objects.remove(objects.size() - 1);
+                } else if (token == JsonToken.FIELD_NAME) {
+                    field = parser.getCurrentName();
+                    //ex. [paths, /a, get, ...] or [components, schemas, ItemDTO, properties, ...]
+                    List<String> in = objects.subList(1, objects.size());
+                    if (field.equals("$ref")) {
+                        String reference = parser.nextTextValue().substring("#/components/schemas/".length());
+                        if (in.get(0).equals("paths")) {
+                            paths.put(in.get(1), reference);
+                        } else {
+                            schemas.get(in.get(2)).add("-> " + reference);
+                        }
+                    } else if (in.size() == 2 && in.get(1).equals("schemas")) {
+                        schemas.put(field, new ArrayList<>());
+                    } else if (in.size() == 4 && in.get(3).equals("properties")) {
+                        schemas.get(in.get(2)).add(field);
+                    }
+                }
+            }
+        }
+
+        assertEquals(new TreeSet<>(Arrays.asList("ItemDTO", "com.a.dto.ItemDTO", "OtherDTO")),
+                new TreeSet<>(schemas.keySet()));
+        String a = paths.get("/a"); // the schema of com.a.dto.ItemDTO
+        String b = paths.get("/b"); // the schema of com.b.dto.ItemDTO
+        assertEquals(Arrays.asList("name"), schemas.get(a));
+        assertEquals(Arrays.asList("count", "other", "-> OtherDTO"), schemas.get(b));
+        assertEquals(Arrays.asList("item", "-> " + a), schemas.get("OtherDTO"));
+    }
+
+    @Test
+    public void operationsOfFilesDeclaringTheSamePathAreMerged() throws IOException {
+        write("com/c/rest/CResource.java", "package com.c.rest;\n\nimport javax.ws.rs.*;\n\n@Path(\"/a\")\n"
+                + "public class CResource {\n    @POST\n    public String post() { return null; }\n}\n");
+        SourceTrees.run("--root=" + this.root.getParent(), "--threads=4", "--openapi=" + this.document);
+        Map<String, List<String>> operations = new HashMap<>(); // path -> ids of its operations
+        try (JsonParser parser = new JsonFactory().createParser(this.document.toFile())) {
+            List<String> objects = new ArrayList<>(); // the field names of the objects the parser is in
+            String field = null; // the last field name read
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    objects.add(field);
+                } else if (token == JsonToken.END_OBJECT) {
+                    objects.remove(objects.size() - 1);
+                } else if (token == JsonToken.FIELD_NAME) {
+                    field = parser.getCurrentName();
+                    //ex. [null, paths, /a, get]
+                    if (field.equals("operationId") && objects.size() == 4 && objects.get(1).equals("paths")) {
+                        operations.computeIfAbsent(objects.get(2), key -> new ArrayList<>())
+                                .add(parser.nextTextValue());
+                    }
+                }
+            }
+        }
+
+        assertEquals(new TreeSet<>(Arrays.asList("AResource_get", "CResource_post")),
+                new TreeSet<>(operations.get("/a")));
+        assertEquals(Arrays.asList("BResource_get"), operations.get("/b"));
+    }
+
+    private void write(String file, String content) throws IOException {
+        Path path = this.root.resolve("src/main/java/" + file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
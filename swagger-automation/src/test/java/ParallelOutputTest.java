@@ -0,0 +1,100 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description: Checks that annotating on several worker threads writes exactly the files a sequential run writes, and
+ * that documenting them writes the same OpenAPI document
+ */
+
+public class ParallelOutputTest {
+
+    private static final String[] TREE = {"--resources=40", "--dtos=60", "--plain=5"}; // options of the generated tree
+
+    private Path work; // directory the trees are generated in
+
+    @Before
+    public void setUp() throws Exception {
+        this.work = Files.createTempDirectory("parallel-output");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        SourceTrees.delete(this.work);
+    }
+
+    @Test
+    public void parallelRunWritesTheSameFilesAsSequentialRun() throws Exception {
+        assertSameOutput("--threads=4");
+    }
+
+    @Test
+    public void parallelStreamingRunWritesTheSameFilesAsSequentialRun() throws Exception {
+        assertSameOutput("--streaming", "--threads=4");
+    }
+
+    @Test
+    public void parallelOpenApiRunWritesTheSameDocumentAsSequentialRun() throws Exception {
+        Path tree = SourceTrees.generate(this.work.resolve("tree"), TREE);
+        String[] httpMethods = {"GET", "POST", "PUT", "DELETE"};
+        for (int i = 0; i < 20; i++) {//files documenting the same path, the first one found of each operation is kept
+            String name = "Shared" + i + "Resource";
+            String httpMethod = httpMethods[i % httpMethods.length];
+            Path file = tree.resolve("pls-shared/src/main/java/" + name + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, ("import javax.ws.rs.*;\n\n@Path(\"/shared\")\npublic class " + name + " {\n"
+                    + "    @" + httpMethod + "\n    public String call() { return null; }\n}\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        Path sequential = this.work.resolve("sequential.json");
+        Path parallel = this.work.resolve("parallel.json");
+
+        SourceTrees.run("--root=" + tree, "--threads=1", "--openapi=" + sequential);
+        SourceTrees.run("--root=" + tree, "--threads=4", "--openapi=" + parallel);
+
+        byte[] expected = Files.readAllBytes(sequential);
+        assertArrayEquals("the documents differ", expected, Files.readAllBytes(parallel));
+        String document = new String(expected, StandardCharsets.UTF_8);
+        assertTrue("the run documented the REST services", document.contains("\"/shared\""));
+        assertEquals("the operations on /shared are merged", httpMethods.length,
+                document.split("Resource_call\"", -1).length - 1);
+    }
+
+    /**
+     * Description: Annotates one copy of the tree sequentially and another with the given options, then compares the
+     * two trees byte for byte
+     *
+     * @param options the options of the second run
+     */
+    private void assertSameOutput(String... options) throws Exception {
+        Path sequential = SourceTrees.generate(this.work.resolve("sequential"), TREE);
+        Path parallel = SourceTrees.generate(this.work.resolve("parallel"), TREE);
+
+        SourceTrees.run("--root=" + sequential, "--threads=1");
+        String[] args = new String[options.length + 1];
+        args[0] = "--root=" + parallel;
+        System.arraycopy(options, 0, args, 1, options.length);
+        SourceTrees.run(args);
+
+        Map<String, byte[]> expected = SourceTrees.read(sequential);
+        Map<String, byte[]> actual = SourceTrees.read(parallel);
+        assertEquals("the same files exist after both runs", expected.keySet(), actual.keySet());
+        int annotated = 0;
+        for (Map.Entry<String, byte[]> file : expected.entrySet()) {
+            assertArrayEquals(file.getKey() + " differs", file.getValue(), actual.get(file.getKey()));
+            if (new String(file.getValue(), StandardCharsets.UTF_8).contains("@Operation")) {
+                annotated++;
+            }
+        }
+        assertTrue("the runs annotated the REST services", annotated > 0);
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Description: Checks that filtering a list of changed files keeps exactly the files a walk of the same roots finds,
+ * with every kind of rule applied: build output directories, exclude and include globs, .gitignore files, and files
+ * outside of the roots
+ */
+
+public class SourceDiscoveryTest {
+
+    private Path directory; // holds the root and a directory next to it
+    private Path root; // the directory searched
+    private List<Path> changed; // every file written, as if every file had changed
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("discovery");
+        this.root = this.directory.resolve("pls-a");
+        this.changed = new ArrayList<>();
+        for (String file : Arrays.asList("src/main/java/Kept.java", "src/main/java/Notes.txt",
+                "target/classes/Built.java", "src/generated-sources/Generated.java", "src/skip/Excluded.java",
+                "src/ignored/Ignored.java", "src/ignored/kept/Nested.java", "src/main/resources/Resource.java")) {
+            this.changed.add(write(this.root.resolve(file), "class A {}"));
+        }
+        write(this.root.resolve("src/.gitignore"), "ignored/\n");
+        this.changed.add(write(this.directory.resolve("other/Outside.java"), "class A {}"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        SourceTrees.delete(this.directory);
+    }
+
+    @Test
+    public void changedFilesPassTheSameRulesAsAWalk() throws IOException {
+        SourceDiscovery discovery = new SourceDiscovery();
+        discovery.addExclude("**/skip/**");
+        Set<String> filtered = names(discovery.filter(this.changed, this.root));
+        assertEquals(names(discovery.discover(this.root)), filtered);
+        assertEquals(new TreeSet<>(Arrays.asList("Kept.java", "Resource.java")), filtered);
+    }
+
+    @Test
+    public void includeGlobsAreMatchedRelativeToTheRoot() throws IOException {
+        SourceDiscovery discovery = new SourceDiscovery();
+        discovery.addInclude("**/resources/**");
+        Set<String> filtered = names(discovery.filter(this.changed, this.root));
+        assertEquals(names(discovery.discover(this.root)), filtered);
+        assertEquals(new TreeSet<>(Arrays.asList("Resource.java")), filtered);
+    }
+
+    private static Set<String> names(Stream<Path> paths) {
+        return paths.map(path -> path.getFileName().toString()).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
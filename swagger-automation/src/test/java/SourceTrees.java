@@ -0,0 +1,124 @@
+import benchmarks.CorpusGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Description: Helpers shared by the tests for generating source trees, running the tool on them, and reading them
+ * back
+ */
+
+final class SourceTrees {
+
+    private SourceTrees() {
+    }
+
+    /**
+     * Description: Writes a synthetic tree with the CorpusGenerator used by the benchmarks
+     *
+     * @param out     the directory to write the tree to
+     * @param options the generator options (ex. --resources=20), see CorpusGenerator
+     * @return the directory written to
+     * @throws IOException if a file cannot be written
+     */
+    static Path generate(Path out, String... options) throws IOException {
+        CorpusGenerator generator = CorpusGenerator.fromArgs(options);
+        generator.setOut(out);
+        generator.generate();
+        return out;
+    }
+
+    /**
+     * Description: Runs the tool's main method with its summary kept off the test output
+     *
+     * @param args the command line arguments
+     * @throws IOException if the run fails
+     */
+    static void run(String... args) throws IOException {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream(), false, StandardCharsets.UTF_8.name()));
+        try {
+            FilesToAnnotateFinder.main(args);
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    /**
+     * Description: Runs the tool's main method in a new JVM
+     *
+     * @param jvmOptions the options of the JVM (ex. -Xmx64m)
+     * @param args       the command line arguments
+     * @return the process's exit code and its merged stdout and stderr
+     * @throws IOException          if the JVM cannot be started
+     * @throws InterruptedException if the test is interrupted while waiting for the JVM
+     */
+    static Map.Entry<Integer, String> fork(List<String> jvmOptions, String... args)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")));
+        //^surefire starts the tests from a manifest-only jar, so java.class.path does not list the classes
+        command.add("FilesToAnnotateFinder");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = process.getInputStream().read(buffer)) != -1) {//draining the output so the process never blocks
+            output.write(buffer, 0, read);
+        }
+        int exitCode = process.waitFor();
+        return new AbstractMap.SimpleEntry<>(exitCode, output.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    /**
+     * Description: Reads every file of a tree
+     *
+     * @param root the root of the tree
+     * @return the path of each file relative to the root -> the file's content, sorted by path
+     * @throws IOException if a file cannot be read
+     */
+    static Map<String, byte[]> read(Path root) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path)) {
+                    files.put(root.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Description: Deletes a directory and everything in it
+     *
+     * @param directory the directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description: Checks that a streaming run annotates a tree within a heap that is far too small to hold the tree's
+ * parsed files, which is what --streaming is for, and that a run without --streaming runs out of memory in the same
+ * heap. The runs are forked into their own JVMs so the heap limit does not depend on how the tests themselves are run.
+ */
+
+public class StreamingMemoryTest {
+
+    private static final String MAX_HEAP = "-Xmx32m"; // the non-streaming run of the tree needs more than twice this
+    private static final String[] TREE = {"--resources=300", "--plain=5"}; // 300 REST services and 600 DTO files
+
+    private Path work; // directory the tree is generated in
+
+    @Before
+    public void setUp() throws Exception {
+        this.work = Files.createTempDirectory("streaming-memory");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        SourceTrees.delete(this.work);
+    }
+
+    @Test
+    public void streamingRunFinishesWithinABoundedHeap() throws Exception {
+        Path tree = SourceTrees.generate(this.work.resolve("tree"), TREE);
+        Path control = SourceTrees.generate(this.work.resolve("control"), TREE);
+
+        Map.Entry<Integer, String> result = SourceTrees.fork(Collections.singletonList(MAX_HEAP),
+                "--root=" + tree, "--streaming");
+        Map.Entry<Integer, String> controlResult = SourceTrees.fork(Collections.singletonList(MAX_HEAP),
+                "--root=" + control);
+
+        assertFalse("the run ran out of memory:\n" + result.getValue(),
+                result.getValue().contains("OutOfMemoryError"));
+        assertEquals("the run failed:\n" + result.getValue(), 0, (int) result.getKey());
+        assertTrue("the run annotated the REST services",
+                result.getValue().contains("Annotated 300 resource.java files."));
+        assertTrue("the run without --streaming did not run out of memory, so the heap does not test streaming:\n"
+                + controlResult.getValue(), controlResult.getValue().contains("OutOfMemoryError"));
+        assertTrue("the run without --streaming succeeded", controlResult.getKey() != 0);
+    }
+}